@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.workitem.common.model.AttributeTypes;
+import com.ibm.team.workitem.common.model.IAttribute;
+import com.ibm.team.workitem.common.model.IWorkItem;
+
+/**
+ * Compares exporting rows with getStringrepresentation(), which analyzes the
+ * attribute type for every cell, to the renderers created once per column.
+ * 
+ * The work items and attributes are stubs that only provide the values, so
+ * the benchmark does not need a repository. Run it with gradle jmh.
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExportRendererBenchmark {
+
+	// The number of rows exported by each benchmark call
+	private static final int ROWS = 1000;
+	// The ID and the type of the exported columns
+	private static final String[][] COLUMNS = { { "summary", AttributeTypes.SMALL_STRING },
+			{ "description", AttributeTypes.MEDIUM_HTML }, { "com.example.blocking", AttributeTypes.BOOLEAN },
+			{ "com.example.estimate", AttributeTypes.INTEGER }, { "com.example.size", AttributeTypes.LONG } };
+
+	private WorkItemExportHelper fExportHelper;
+	private IAttribute[] fAttributes;
+	private IColumnRenderer[] fRenderers;
+	private IWorkItem[] fRows;
+
+	@Setup
+	public void setup() {
+		fExportHelper = new WorkItemExportHelper(null, new NullProgressMonitor());
+		fAttributes = new IAttribute[COLUMNS.length];
+		fRenderers = new IColumnRenderer[COLUMNS.length];
+		for (int i = 0; i < COLUMNS.length; i++) {
+			fAttributes[i] = createAttribute(COLUMNS[i][0], COLUMNS[i][1]);
+			fRenderers[i] = fExportHelper.createRenderer(COLUMNS[i][0], fAttributes[i]);
+		}
+		fRows = new IWorkItem[ROWS];
+		for (int row = 0; row < ROWS; row++) {
+			Map<IAttribute, Object> values = new HashMap<IAttribute, Object>();
+			values.put(fAttributes[0], "Summary of row " + row);
+			values.put(fAttributes[1], "<b>Description</b> of row " + row);
+			values.put(fAttributes[2], Boolean.valueOf(row % 2 == 0));
+			values.put(fAttributes[3], Integer.valueOf(row));
+			values.put(fAttributes[4], Long.valueOf(row * 1000L));
+			fRows[row] = createWorkItem(values);
+		}
+	}
+
+	@Benchmark
+	public void getStringrepresentation(Blackhole blackhole) throws TeamRepositoryException {
+		for (IWorkItem workItem : fRows) {
+			for (int i = 0; i < COLUMNS.length; i++) {
+				blackhole.consume(fExportHelper.getStringrepresentation(workItem, COLUMNS[i][0], fAttributes[i]));
+			}
+		}
+	}
+
+	@Benchmark
+	public void renderers(Blackhole blackhole) throws TeamRepositoryException {
+		for (IWorkItem workItem : fRows) {
+			for (IColumnRenderer renderer : fRenderers) {
+				blackhole.consume(renderer.render(workItem));
+			}
+		}
+	}
+
+	/**
+	 * Create an attribute stub that only has an ID and a type
+	 * 
+	 * @param identifier
+	 * @param attributeType
+	 * @return
+	 */
+	private static IAttribute createAttribute(final String identifier, final String attributeType) {
+		return (IAttribute) Proxy.newProxyInstance(IAttribute.class.getClassLoader(),
+				new Class<?>[] { IAttribute.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getIdentifier")) {
+							return identifier;
+						}
+						if (method.getName().equals("getAttributeType")) {
+							return attributeType;
+						}
+						return invokeObjectMethod(proxy, method, args, identifier);
+					}
+				});
+	}
+
+	/**
+	 * Create a work item stub that only has attribute values
+	 * 
+	 * @param values
+	 *            - the values by attribute
+	 * @return
+	 */
+	private static IWorkItem createWorkItem(final Map<IAttribute, Object> values) {
+		return (IWorkItem) Proxy.newProxyInstance(IWorkItem.class.getClassLoader(),
+				new Class<?>[] { IWorkItem.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("hasAttribute")) {
+							return Boolean.valueOf(values.containsKey(args[0]));
+						}
+						if (method.getName().equals("getValue")) {
+							return values.get(args[0]);
+						}
+						return invokeObjectMethod(proxy, method, args, "work item");
+					}
+				});
+	}
+
+	/**
+	 * Implement the methods of Object for a stub, the stubs are only equal to
+	 * themselves
+	 * 
+	 * @param proxy
+	 * @param method
+	 * @param args
+	 * @param name
+	 *            - returned by toString()
+	 * @return
+	 */
+	private static Object invokeObjectMethod(Object proxy, Method method, Object[] args, String name) {
+		if (method.getName().equals("equals")) {
+			return Boolean.valueOf(proxy == args[0]);
+		}
+		if (method.getName().equals("hashCode")) {
+			return Integer.valueOf(System.identityHashCode(proxy));
+		}
+		if (method.getName().equals("toString")) {
+			return name;
+		}
+		throw new UnsupportedOperationException("Not supported by the stub: " + method.getName());
+	}
+}
@@ -53,7 +53,7 @@ public class OperationResult implements Serializable {
 	 * 
 	 * @param value
 	 */
-	public void appendResultString(String value) {
+	public synchronized void appendResultString(String value) {
 		if (!WorkitemCommandLine.isServer()) {
 			System.out.println(value);
 		} else {
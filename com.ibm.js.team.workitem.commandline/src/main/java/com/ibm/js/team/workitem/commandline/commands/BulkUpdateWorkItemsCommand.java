@@ -186,6 +186,9 @@ public class BulkUpdateWorkItemsCommand extends AbstractWorkItemModificationComm
 				IResult queryResult = results.next(null);
 				result &= updateWorkItem((IWorkItemHandle) queryResult.getItem());
 			}
+			for (String cacheStatistics : getValueCache().getStatistics()) {
+				getResult().appendResultString(cacheStatistics);
+			}
 			if (result) {
 				this.setSuccess();
 				return;
@@ -7,37 +7,67 @@
  *******************************************************************************/
 package com.ibm.js.team.workitem.commandline.commands;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.ibm.js.team.workitem.commandline.IWorkItemCommandLineConstants;
 import com.ibm.js.team.workitem.commandline.OperationResult;
 import com.ibm.js.team.workitem.commandline.framework.AbstractTeamRepositoryCommand;
 import com.ibm.js.team.workitem.commandline.framework.ParameterValue;
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.js.team.workitem.commandline.helper.AttachmentDownloader;
 import com.ibm.js.team.workitem.commandline.helper.ColumnHeaderMappingHelper;
+import com.ibm.js.team.workitem.commandline.helper.ExportJournal;
+import com.ibm.js.team.workitem.commandline.helper.ExportShards;
+import com.ibm.js.team.workitem.commandline.helper.ExportWatermark;
+import com.ibm.js.team.workitem.commandline.helper.FlushPolicy;
+import com.ibm.js.team.workitem.commandline.helper.IColumnRenderer;
+import com.ibm.js.team.workitem.commandline.helper.IncrementalExport;
+import com.ibm.js.team.workitem.commandline.helper.JsonLinesWriter;
+import com.ibm.js.team.workitem.commandline.helper.TimingStatistics;
 import com.ibm.js.team.workitem.commandline.helper.WorkItemExportHelper;
 import com.ibm.js.team.workitem.commandline.parameter.ColumnHeaderAttributeNameMapper;
+import com.ibm.js.team.workitem.commandline.parameter.ParameterIDMapper;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterManager;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentArchive;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
+import com.ibm.js.team.workitem.commandline.utils.QueryResultPager;
 import com.ibm.js.team.workitem.commandline.utils.QueryUtil;
 import com.ibm.js.team.workitem.commandline.utils.WorkItemUtil;
 import com.ibm.team.process.common.IProjectArea;
 import com.ibm.team.repository.common.IAuditableHandle;
 import com.ibm.team.repository.common.TeamRepositoryException;
-import com.ibm.team.workitem.common.model.IAttribute;
+import com.ibm.team.repository.common.UUID;
 import com.ibm.team.workitem.common.model.IWorkItem;
 import com.ibm.team.workitem.common.model.IWorkItemHandle;
+import com.ibm.team.workitem.common.model.ItemProfile;
 import com.ibm.team.workitem.common.query.IQueryDescriptor;
 import com.ibm.team.workitem.common.query.IQueryResult;
 import com.ibm.team.workitem.common.query.IResult;
 import com.ibm.team.workitem.common.query.ResultSize;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
 import com.opencsv.CSVWriter;
 
 /**
@@ -62,6 +92,16 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 	public static final String SWITCH_HEADER_AS_ID = "headerIDs";
 	// Try to determine all the supported attributes
 	public static final String SWITCH_ALL_COLUMNS = "allColumns";
+	// Only export the work items that changed since the last export
+	public static final String SWITCH_INCREMENTAL = "incremental";
+	// Resume an export that failed from the last checkpoint
+	public static final String SWITCH_RESUME = "resume";
+	// Store attachments by content and skip the ones already saved
+	public static final String SWITCH_ATTACHMENTS_BY_CONTENT = "attachmentsByContent";
+	// Store the attachments in one archive instead of one file each
+	public static final String SWITCH_ATTACHMENT_ARCHIVE = "attachmentArchive";
+	// The extension of the file that is written by an incremental export
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
 	// NewLine separator for lists in RTC compatible format
 	public static final String SEPERATOR_NEWLINE = "\n";
 	// The default separator for lists such as tags
@@ -81,6 +121,37 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 	// private static final String PARAMETER_EXPORT_COLUMNS_EXAMPLE2 =
 	// "\"id,workItemType,internalState,internalPriority,internalSeverity,summary,owner,creator\"";
 
+	// Switch to specify how many work items are resolved in one server round
+	// trip
+	private static final String PARAMETER_RESOLVE_BATCH_SIZE = "resolveBatchSize";
+	private static final String PARAMETER_RESOLVE_BATCH_SIZE_EXAMPLE = "500";
+	private static final int DEFAULT_RESOLVE_BATCH_SIZE = 100;
+
+	// Switch to specify how many threads resolve and render work items
+	private static final String PARAMETER_EXPORT_THREADS = "exportThreads";
+	private static final String PARAMETER_EXPORT_THREADS_EXAMPLE = "4";
+	private static final int DEFAULT_EXPORT_THREADS = 1;
+
+	// Switch to specify how often the export file is flushed, rows or seconds
+	private static final String PARAMETER_FLUSH_EVERY = "flushEvery";
+	private static final String PARAMETER_FLUSH_EVERY_EXAMPLE = "1000|30s";
+	// Switch to specify how many threads download attachments
+	private static final String PARAMETER_ATTACHMENT_THREADS = "attachmentThreads";
+	private static final String PARAMETER_ATTACHMENT_THREADS_EXAMPLE = "4";
+	// Switches to split the export into files with a maximal number of rows
+	// or bytes
+	private static final String PARAMETER_SHARD_ROWS = "shardRows";
+	private static final String PARAMETER_SHARD_ROWS_EXAMPLE = "100000";
+	private static final String PARAMETER_SHARD_BYTES = "shardBytes";
+	private static final String PARAMETER_SHARD_BYTES_EXAMPLE = "500M";
+	// Parameter for the format of the export file
+	private static final String PARAMETER_FORMAT = "format";
+	private static final String PARAMETER_FORMAT_EXAMPLE = "jsonl";
+	private static final String FORMAT_CSV = "csv";
+	private static final String FORMAT_JSONL = "jsonl";
+	// The size of the buffer for the export file
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
 	// The encoding to be used when saving the file
 	private String fFileEncoding = IWorkItemCommandLineConstants.DEFAULT_ENCODING_UTF_16LE;
 
@@ -95,6 +166,36 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 	private boolean fIgnoreErrors = false;
 	// Suppress Attribute Not found Exception
 	private boolean fSuppressAttributeErrors = false;
+	// Number of work items resolved in one server round trip
+	private int fResolveBatchSize = DEFAULT_RESOLVE_BATCH_SIZE;
+	// Number of threads that resolve and render work items
+	private int fExportThreads = DEFAULT_EXPORT_THREADS;
+	// Number of threads that download attachments, 0 to download them while
+	// the row is computed
+	private int fAttachmentThreads = 0;
+	// When to flush the export file
+	private FlushPolicy fFlushPolicy = FlushPolicy.everyRows(FlushPolicy.DEFAULT_FLUSH_ROWS);
+	// The state of an incremental export, null for a full export
+	private IncrementalExport fIncrementalExport = null;
+	// Maximal rows and bytes of a shard, 0 for no limit
+	private int fShardRows = 0;
+	private long fShardBytes = 0;
+	// The shards of the export, null if the export is written to one file
+	private ExportShards fShards = null;
+	// Write JSON Lines instead of CSV?
+	private boolean fJsonLines = false;
+	// The writer of the export file or the current shard
+	private CSVWriter fWriter = null;
+	// The writer if the export is written as JSON Lines
+	private JsonLinesWriter fJsonWriter = null;
+	// The header row, written into each shard
+	private String[] fHeader = null;
+	// The checkpoints of the export, null for an incremental export
+	private ExportJournal fJournal = null;
+	// Resume the export from the last checkpoint?
+	private boolean fResume = false;
+	// Downloads the attachments in the background, null if the rows do
+	private AttachmentDownloader fAttachmentDownloader = null;
 	private WorkItemExportHelper fWorkItemExportHelper;
 
 	/**
@@ -138,8 +239,19 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 		getParameterManager().syntaxAddSwitch(SWITCH_RTC_ECLIPSE_EXPORT);
 		getParameterManager().syntaxAddSwitch(SWITCH_DISABLE_ATTACHMENT_EXPORT);
 		getParameterManager().syntaxAddSwitch(SWITCH_ALL_COLUMNS);
+		getParameterManager().syntaxAddSwitch(SWITCH_INCREMENTAL);
+		getParameterManager().syntaxAddSwitch(SWITCH_RESUME);
+		getParameterManager().syntaxAddSwitch(SWITCH_ATTACHMENTS_BY_CONTENT);
+		getParameterManager().syntaxAddSwitch(SWITCH_ATTACHMENT_ARCHIVE);
 		getParameterManager()
 				.syntaxAddSwitch(IWorkItemCommandLineConstants.SWITCH_EXPORT_SUPPRESS_ATTRIBUTE_EXCEPTIONS);
+		getParameterManager().syntaxAddSwitch(PARAMETER_RESOLVE_BATCH_SIZE, PARAMETER_RESOLVE_BATCH_SIZE_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_EXPORT_THREADS, PARAMETER_EXPORT_THREADS_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_FLUSH_EVERY, PARAMETER_FLUSH_EVERY_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_ATTACHMENT_THREADS, PARAMETER_ATTACHMENT_THREADS_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_SHARD_ROWS, PARAMETER_SHARD_ROWS_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_SHARD_BYTES, PARAMETER_SHARD_BYTES_EXAMPLE);
+		getParameterManager().syntaxAddSwitch(PARAMETER_FORMAT, PARAMETER_FORMAT_EXAMPLE);
 
 	}
 
@@ -163,7 +275,21 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 				+ IWorkItemCommandLineConstants.PARAMETER_SHARING_TARGETS_EXAMPLE + "]" + "["
 				+ IWorkItemCommandLineConstants.PARAMETER_TIMESTAMP_ENCODING
 				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR
-				+ IWorkItemCommandLineConstants.PARAMETER_TIMESTAMP_ENCODING_EXAMPLE + "]";
+				+ IWorkItemCommandLineConstants.PARAMETER_TIMESTAMP_ENCODING_EXAMPLE + "]" + " ["
+				+ IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_RESOLVE_BATCH_SIZE
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_RESOLVE_BATCH_SIZE_EXAMPLE
+				+ "]" + " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_EXPORT_THREADS
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_EXPORT_THREADS_EXAMPLE
+				+ "]" + " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_FLUSH_EVERY
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_FLUSH_EVERY_EXAMPLE + "]"
+				+ " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_ATTACHMENT_THREADS
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_ATTACHMENT_THREADS_EXAMPLE
+				+ "]" + " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_SHARD_ROWS
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_SHARD_ROWS_EXAMPLE + "]"
+				+ " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_SHARD_BYTES
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_SHARD_BYTES_EXAMPLE + "]"
+				+ " [" + IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_FORMAT
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_FORMAT_EXAMPLE + "]";
 	}
 
 	/*
@@ -210,6 +336,47 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 			setCSVEscaleChar(delimiter);
 		}
 
+		String resolveBatchSize = getParameterManager().consumeParameter(PARAMETER_RESOLVE_BATCH_SIZE);
+		if (resolveBatchSize != null) {
+			setResolveBatchSize(getPositiveNumber(PARAMETER_RESOLVE_BATCH_SIZE, resolveBatchSize));
+		}
+
+		String exportThreads = getParameterManager().consumeParameter(PARAMETER_EXPORT_THREADS);
+		if (exportThreads != null) {
+			setExportThreads(getPositiveNumber(PARAMETER_EXPORT_THREADS, exportThreads));
+		}
+
+		String flushEvery = getParameterManager().consumeParameter(PARAMETER_FLUSH_EVERY);
+		if (flushEvery != null) {
+			setFlushPolicy(FlushPolicy.parse(flushEvery));
+		}
+
+		String attachmentThreads = getParameterManager().consumeParameter(PARAMETER_ATTACHMENT_THREADS);
+		if (attachmentThreads != null) {
+			setAttachmentThreads(getPositiveNumber(PARAMETER_ATTACHMENT_THREADS, attachmentThreads));
+		}
+
+		String shardRows = getParameterManager().consumeParameter(PARAMETER_SHARD_ROWS);
+		if (shardRows != null) {
+			fShardRows = getPositiveNumber(PARAMETER_SHARD_ROWS, shardRows);
+		}
+		String shardBytes = getParameterManager().consumeParameter(PARAMETER_SHARD_BYTES);
+		if (shardBytes != null) {
+			fShardBytes = getPositiveSize(PARAMETER_SHARD_BYTES, shardBytes);
+		}
+
+		String format = getParameterManager().consumeParameter(PARAMETER_FORMAT);
+		if (format != null) {
+			if (FORMAT_JSONL.equalsIgnoreCase(format.trim())) {
+				// JSON Lines are always UTF-8
+				fJsonLines = true;
+				setFileEncoding(IWorkItemCommandLineConstants.DEFAULT_ENCODING_UTF_8);
+			} else if (!FORMAT_CSV.equalsIgnoreCase(format.trim())) {
+				throw new WorkItemCommandLineException("Parameter " + PARAMETER_FORMAT + " must be " + FORMAT_CSV
+						+ " or " + FORMAT_JSONL + " >" + format + "<");
+			}
+		}
+
 		ColumnHeaderMappingHelper columnHeaderMapping = new ColumnHeaderMappingHelper(projectArea, getWorkItemCommon(),
 				getMonitor(), isIgnoreErrors());
 
@@ -288,53 +455,300 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 	 */
 	private void exportCSV(String filePath, IQueryDescriptor query, ColumnHeaderMappingHelper columnHeaderMapping)
 			throws TeamRepositoryException {
-		CSVWriter writer = null;
+		List<String> headerNames = columnHeaderMapping.analyzeColumnHeader(getHeaderAsIDs(),
+				getWorkItemExportHelper());
+		String columns = getColumnIDs(columnHeaderMapping);
+		File exportFile = new File(filePath);
+		File outputFile = exportFile;
+		setResume(getParameterManager().hasSwitch(SWITCH_RESUME));
+		if (fShardRows > 0 || fShardBytes > 0) {
+			fShards = new ExportShards(exportFile, fShardRows, fShardBytes);
+		}
+		if (getParameterManager().hasSwitch(SWITCH_ATTACHMENT_ARCHIVE)
+				&& (isResume() || getParameterManager().hasSwitch(SWITCH_INCREMENTAL))) {
+			// The archive is written from scratch, it would lose the
+			// attachments of the rows that are not exported again
+			throw new WorkItemCommandLineException("Switch " + SWITCH_ATTACHMENT_ARCHIVE
+					+ " can not be used together with " + SWITCH_RESUME + " or " + SWITCH_INCREMENTAL);
+		}
+		if (fShards != null && (isResume() || getParameterManager().hasSwitch(SWITCH_INCREMENTAL))) {
+			throw new WorkItemCommandLineException("Switch " + PARAMETER_SHARD_ROWS + " or " + PARAMETER_SHARD_BYTES
+					+ " can not be used together with " + SWITCH_RESUME + " or " + SWITCH_INCREMENTAL);
+		}
+		if (fJsonLines && getParameterManager().hasSwitch(SWITCH_INCREMENTAL)) {
+			// The rows of the previous export are read as CSV
+			throw new WorkItemCommandLineException("Switch " + SWITCH_INCREMENTAL + " can not be used together with "
+					+ PARAMETER_FORMAT + IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + FORMAT_JSONL);
+		}
+		if (getParameterManager().hasSwitch(SWITCH_INCREMENTAL)) {
+			if (isResume()) {
+				throw new WorkItemCommandLineException(
+						"Switch " + SWITCH_RESUME + " can not be used together with " + SWITCH_INCREMENTAL);
+			}
+			// Write a new file and replace the export file when done
+			fIncrementalExport = createIncrementalExport(exportFile, columnHeaderMapping, columns);
+			outputFile = new File(exportFile.getAbsolutePath() + TEMP_FILE_EXTENSION);
+		} else if (isResume()) {
+			fJournal = ExportJournal.load(exportFile);
+			if (!columns.equals(fJournal.getColumns())) {
+				throw new WorkItemCommandLineException("Columns changed since the export to resume was started.");
+			}
+			// Remove the rows written after the last checkpoint
+			fJournal.truncateExportFile();
+		} else if (fShards == null) {
+			// The journal can only resume an export into one file
+			fJournal = new ExportJournal(exportFile, columns);
+		}
+		AttachmentArchive archive = null;
+		List<String> failedAttachments = new ArrayList<String>();
 		try {
+			enableSaveAttachments(outputFile);
+			fHeader = headerNames.toArray(new String[headerNames.size()]);
 			// Create the writer
-			writer = createWriter(filePath);
-			exportAllData(columnHeaderMapping, query, writer);
+			if (fShards != null) {
+				openWriter(fShards.nextShard(), fShards.getFile().getAbsolutePath());
+			} else {
+				openWriter(outputFile.getAbsolutePath(), isResume());
+			}
+			if (getWorkItemExportHelper().isSaveAttachments()
+					&& getParameterManager().hasSwitch(SWITCH_ATTACHMENT_ARCHIVE)) {
+				archive = new AttachmentArchive(new File(getWorkItemExportHelper().getOutputFolder(),
+						ParameterIDMapper.PSEUDO_ATTRIBUTE_ATTACHMENTS));
+				getWorkItemExportHelper().setAttachmentArchive(archive);
+			}
+			if (getWorkItemExportHelper().isSaveAttachments() && getAttachmentThreads() > 0) {
+				fAttachmentDownloader = new AttachmentDownloader(getAttachmentThreads(), getMonitor());
+				getWorkItemExportHelper().setAttachmentDownloader(fAttachmentDownloader);
+			}
+			exportAllData(columnHeaderMapping, headerNames, query);
 		} finally {
+			if (fAttachmentDownloader != null) {
+				// Wait for the downloads of the rows already computed
+				getWorkItemExportHelper().setAttachmentDownloader(null);
+				getResult().appendResultString(fAttachmentDownloader.finish());
+				failedAttachments = fAttachmentDownloader.getFailures();
+				fAttachmentDownloader = null;
+			}
 			try {
-				if (writer != null) {
-					writer.flush();
-					writer.close();
+				if (archive != null) {
+					getWorkItemExportHelper().setAttachmentArchive(null);
+					archive.close();
+					getResult().appendResultString("Attachment archive: " + archive.getSize() + " files.");
 				}
+				closeWriter();
 			} catch (IOException e) {
 				throw new WorkItemCommandLineException(e);
 			}
 		}
+		if (!failedAttachments.isEmpty()) {
+			// Keep the journal and the previous watermark, the export is not
+			// complete. The journal points before the rows with the failed
+			// attachments.
+			for (String failure : failedAttachments) {
+				getResult().appendResultString(failure);
+			}
+			getResult().appendResultString(
+					"Export failed, " + failedAttachments.size() + " attachments could not be saved.");
+			setFailed();
+			return;
+		}
+		if (fJournal != null) {
+			// The export is complete, there is nothing to resume
+			fJournal.delete();
+		}
+		if (fShards != null) {
+			fShards.saveManifest();
+			getResult().appendResultString(fShards.getSummary());
+		}
+		if (fIncrementalExport != null) {
+			try {
+				Files.move(outputFile.toPath(), exportFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new WorkItemCommandLineException("Exception replacing export file: " + filePath, e);
+			}
+			fIncrementalExport.getWatermark().save(ExportWatermark.getFile(exportFile));
+			getResult().appendResultString(fIncrementalExport.getSummary());
+		}
 		setSuccess();
 
 	}
 
 	/**
-	 * Create a CSV file writer to write the CSV file with the specific encoding
+	 * Prepare an incremental export. If the export file and its watermark
+	 * exist and the columns did not change, the rows of the export file are
+	 * read to be reused for unchanged work items. Otherwise all work items are
+	 * exported.
 	 * 
-	 * @param filePath
+	 * @param exportFile
+	 * @param columnHeaderMapping
+	 * @param columnIDs
+	 *            - the attribute IDs of the columns
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private IncrementalExport createIncrementalExport(File exportFile, ColumnHeaderMappingHelper columnHeaderMapping,
+			String columnIDs) throws TeamRepositoryException {
+		List<ParameterValue> columns = columnHeaderMapping.getParameters();
+		int idColumn = -1;
+		for (int i = 0; i < columns.size(); i++) {
+			if (IWorkItem.ID_PROPERTY.equals(columns.get(i).getAttributeID())) {
+				idColumn = i;
+				break;
+			}
+		}
+		if (idColumn < 0) {
+			throw new WorkItemCommandLineException(
+					"Incremental export requires the column " + IWorkItem.ID_PROPERTY + " to merge the rows.");
+		}
+		ExportWatermark watermark = new ExportWatermark(columnIDs);
+		File watermarkFile = ExportWatermark.getFile(exportFile);
+		if (!exportFile.exists() || !watermarkFile.exists()) {
+			getResult().appendResultString("No previous export found, exporting all work items.");
+			return new IncrementalExport(null, watermark, new HashMap<String, String[]>());
+		}
+		ExportWatermark previousWatermark = ExportWatermark.load(watermarkFile);
+		if (!watermark.getColumns().equals(previousWatermark.getColumns())) {
+			getResult().appendResultString("Columns changed since the previous export, exporting all work items.");
+			return new IncrementalExport(null, watermark, new HashMap<String, String[]>());
+		}
+		return new IncrementalExport(previousWatermark, watermark, readPreviousRows(exportFile, idColumn));
+	}
+
+	/**
+	 * Get the attribute IDs of the columns to be able to detect changed
+	 * columns
+	 * 
+	 * @param columnHeaderMapping
+	 * @return the attribute IDs separated by ','
+	 */
+	private String getColumnIDs(ColumnHeaderMappingHelper columnHeaderMapping) {
+		StringBuilder columnIDs = new StringBuilder();
+		for (ParameterValue column : columnHeaderMapping.getParameters()) {
+			if (columnIDs.length() > 0) {
+				columnIDs.append(ColumnHeaderMappingHelper.SEPARATOR_COLUMNS);
+			}
+			columnIDs.append(column.getAttributeID());
+		}
+		return columnIDs.toString();
+	}
+
+	/**
+	 * Read the rows of a previous export by work item ID
+	 * 
+	 * @param exportFile
+	 * @param idColumn
+	 *            - the column with the work item ID
 	 * @return
 	 * @throws WorkItemCommandLineException
 	 */
-	@SuppressWarnings("deprecation")
-	private CSVWriter createWriter(String filePath) throws WorkItemCommandLineException {
-		CSVWriter writer = null;
+	private Map<String, String[]> readPreviousRows(File exportFile, int idColumn) throws WorkItemCommandLineException {
+		Map<String, String[]> rows = new HashMap<String, String[]>();
+		CSVReader reader = null;
+		try {
+			reader = new CSVReaderBuilder(new InputStreamReader(new FileInputStream(exportFile), getFileEncoding()))
+					.withCSVParser(new CSVParserBuilder().withSeparator(getCSVSeparator())
+							.withQuoteChar(getQuoteChar()).withEscapeChar(getCSVEscapeChar()).build())
+					.withSkipLines(1).build();
+			String[] row;
+			while ((row = reader.readNext()) != null) {
+				if (row.length > idColumn) {
+					rows.put(row[idColumn].trim(), row);
+				}
+			}
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception reading previous export: " + exportFile.getAbsolutePath(),
+					e);
+		} finally {
+			try {
+				if (reader != null) {
+					reader.close();
+				}
+			} catch (IOException e) {
+				throw new WorkItemCommandLineException(e);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Open the writer to write the export file with the specific encoding
+	 * 
+	 * @param filePath
+	 * @param append
+	 *            - append to an existing file
+	 * @throws WorkItemCommandLineException
+	 */
+	private void openWriter(String filePath, boolean append) throws WorkItemCommandLineException {
 		try {
 			// Create the file
-			File outputFile = new File(filePath);
-			// enable saving attachments
-			if (getParameterManager().hasSwitch(SWITCH_DISABLE_ATTACHMENT_EXPORT)) {
-				getWorkItemExportHelper().disableSaveAttachments();
-			} else {
-				getWorkItemExportHelper().enableSaveAttachments(outputFile.getParentFile().getAbsolutePath());
+			openWriter(new FileOutputStream(new File(filePath), append), filePath);
+		} catch (FileNotFoundException e) {
+			throw new WorkItemCommandLineException("Exception creating output writer: " + filePath, e);
+		}
+	}
+
+	/**
+	 * Open the writer to write to a stream with the specific encoding, a CSV
+	 * writer or a JSON Lines writer depending on the format
+	 * 
+	 * @param out
+	 * @param filePath
+	 *            - the file the stream writes to
+	 * @throws WorkItemCommandLineException
+	 */
+	@SuppressWarnings("deprecation")
+	private void openWriter(OutputStream out, String filePath) throws WorkItemCommandLineException {
+		try {
+			// Buffer the output, the file is flushed according to the flush
+			// policy
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, getFileEncoding()),
+					WRITE_BUFFER_SIZE);
+			if (fJsonLines) {
+				fJsonWriter = new JsonLinesWriter(writer, fHeader);
+				return;
 			}
 			// @see http://opencsv.sourceforge.net/
-			writer = new CSVWriter(new OutputStreamWriter(new FileOutputStream(outputFile), getFileEncoding()),
-					getCSVSeparator(), getQuoteChar(), getCSVEscapeChar(), getCSVLineEnding());
+			fWriter = new CSVWriter(writer, getCSVSeparator(), getQuoteChar(), getCSVEscapeChar(),
+					getCSVLineEnding());
 		} catch (UnsupportedEncodingException e) {
-			throw new WorkItemCommandLineException("Exception creating CSV output writer: " + filePath, e);
-		} catch (FileNotFoundException e) {
-			throw new WorkItemCommandLineException("Exception creating CSV output writer: " + filePath, e);
+			throw new WorkItemCommandLineException("Exception creating output writer: " + filePath, e);
+		}
+	}
+
+	/**
+	 * Flush and close the writer of the export file or the current shard
+	 * 
+	 * @throws IOException
+	 */
+	private void closeWriter() throws IOException {
+		if (fWriter != null) {
+			fWriter.flush();
+			fWriter.close();
+		}
+		if (fJsonWriter != null) {
+			fJsonWriter.flush();
+			fJsonWriter.close();
+		}
+		// Not closed again if the next writer can not be created
+		fWriter = null;
+		fJsonWriter = null;
+	}
+
+	/**
+	 * Enable saving the attachments into the folder of the export file,
+	 * unless attachment export is disabled
+	 * 
+	 * @param outputFile
+	 * @throws WorkItemCommandLineException
+	 */
+	private void enableSaveAttachments(File outputFile) throws WorkItemCommandLineException {
+		if (getParameterManager().hasSwitch(SWITCH_DISABLE_ATTACHMENT_EXPORT)) {
+			getWorkItemExportHelper().disableSaveAttachments();
+		} else {
+			getWorkItemExportHelper().enableSaveAttachments(outputFile.getParentFile().getAbsolutePath());
+			getWorkItemExportHelper()
+					.setAttachmentsByContent(getParameterManager().hasSwitch(SWITCH_ATTACHMENTS_BY_CONTENT));
 		}
-		return writer;
 	}
 
 	
@@ -342,58 +756,398 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 	 * Perform the export
 	 * 
 	 * @param columnHeaderMapping
+	 * @param headerNames
 	 * @param query
-	 * @param writer
 	 * @throws TeamRepositoryException
 	 */
-	private void exportAllData(ColumnHeaderMappingHelper columnHeaderMapping, IQueryDescriptor query, CSVWriter writer)
-			throws TeamRepositoryException {
+	private void exportAllData(ColumnHeaderMappingHelper columnHeaderMapping, List<String> headerNames,
+			IQueryDescriptor query) throws TeamRepositoryException {
 
-		List<String> headerNames = columnHeaderMapping.analyzeColumnHeader(getHeaderAsIDs());
-		writer.writeNext(headerNames.toArray(new String[headerNames.size()]));
+		if (!isResume()) {
+			writeHeader();
+			checkpoint(0, 0);
+		}
 		// Query the work items
 		IQueryResult<IResult> results = QueryUtil.getUnresolvedQueryResult(query, isOverrideQueryResultSizeLimit());
 		ResultSize resultSize = results.getResultSize(getMonitor());
-		List<IWorkItemHandle> workItems = new ArrayList<IWorkItemHandle>(resultSize.getTotal());
-		while (results.hasNext(null)) {
-			IResult result = results.next(null);
-			workItems.add((IWorkItemHandle) result.getItem());
+		System.out.println("Exporting " + resultSize.getTotal() + " workItems.");
+		// Read the query result page by page while exporting
+		QueryResultPager pager = new QueryResultPager(results, getResolveBatchSize(), getMonitor());
+		if (isResume()) {
+			// The work items are not resolved again
+			int skipped = pager.skip(fJournal.getPosition());
+			checkResumePosition(skipped, pager.getLastSkipped());
+			getResult().appendResultString("Resuming export after " + skipped + " work items, last work item "
+					+ fJournal.getWorkItemId() + ".");
 		}
-		System.out.println("Exporting " + workItems.size() + " workItems.");
 
-		for (IWorkItemHandle handle : workItems) {
-			IWorkItem workItem = WorkItemUtil.resolveWorkItem(handle, IWorkItem.FULL_PROFILE, getWorkItemCommon(),
+		// Only load the properties needed for the selected columns
+		ItemProfile<IWorkItem> profile = columnHeaderMapping.getItemProfile();
+		// Resolve the work items in pages to avoid a server round trip per
+		// work item
+		TimingStatistics resolveStatistics = new TimingStatistics(
+				"Resolve work items (page size " + getResolveBatchSize() + ")");
+		if (getExportThreads() > 1) {
+			exportPagesConcurrently(pager, columnHeaderMapping, profile, resolveStatistics);
+		} else {
+			while (pager.hasNextPage()) {
+				List<IWorkItemHandle> page = pager.nextPage();
+				writePage(exportPage(page, pager.getCount(), columnHeaderMapping, profile, resolveStatistics));
+			}
+		}
+		getResult().appendResultString(resolveStatistics.getSummary());
+		for (String cacheStatistics : getWorkItemExportHelper().getCacheStatistics()) {
+			getResult().appendResultString(cacheStatistics);
+		}
+	}
+
+	/**
+	 * Check that the query result still has the work item of the last
+	 * checkpoint at the same position. Otherwise the order or the work items
+	 * of the query changed and resuming would duplicate or drop rows.
+	 * 
+	 * @param skipped
+	 *            - the number of work items skipped
+	 * @param lastSkipped
+	 *            - the last work item skipped or null
+	 */
+	private void checkResumePosition(int skipped, IWorkItemHandle lastSkipped) {
+		if (fJournal.getPosition() == 0) {
+			return;
+		}
+		boolean changed = skipped != fJournal.getPosition();
+		if (!changed && fJournal.getWorkItemId() != 0) {
+			// The work item at the position was resolved when it was exported
+			try {
+				changed = WorkItemUtil.resolveWorkItem(lastSkipped, IWorkItem.ID_PROFILE, getWorkItemCommon(),
+						getMonitor()).getId() != fJournal.getWorkItemId();
+			} catch (TeamRepositoryException e) {
+				// e.g. the work item was deleted
+				changed = true;
+			}
+		}
+		if (changed) {
+			throw new WorkItemCommandLineException("Can not resume, the query result changed since the checkpoint."
+					+ " Expected work item " + fJournal.getWorkItemId() + " at position " + fJournal.getPosition()
+					+ ". Export again without " + SWITCH_RESUME + ".");
+		}
+	}
+
+	/**
+	 * Resolve and render the pages of work items with a pool of threads. The
+	 * rows are written by the calling thread in the order of the query. Only
+	 * a limited number of pages is in work or waits to be written, to keep
+	 * the memory needed independent of the number of work items.
+	 * 
+	 * @param pager
+	 * @param columnHeaderMapping
+	 * @param profile
+	 * @param resolveStatistics
+	 * @throws TeamRepositoryException
+	 */
+	private void exportPagesConcurrently(QueryResultPager pager,
+			final ColumnHeaderMappingHelper columnHeaderMapping, final ItemProfile<IWorkItem> profile,
+			final TimingStatistics resolveStatistics) throws TeamRepositoryException {
+		int maxPendingPages = 2 * getExportThreads();
+		ArrayDeque<Future<ExportedPage>> pendingPages = new ArrayDeque<Future<ExportedPage>>(maxPendingPages);
+		ExecutorService executor = Executors.newFixedThreadPool(getExportThreads());
+		try {
+			boolean morePages = pager.hasNextPage();
+			while (morePages || !pendingPages.isEmpty()) {
+				while (morePages && pendingPages.size() < maxPendingPages) {
+					// The query result is only read by this thread
+					final List<IWorkItemHandle> page = pager.nextPage();
+					final int endPosition = pager.getCount();
+					pendingPages.add(executor.submit(new Callable<ExportedPage>() {
+						@Override
+						public ExportedPage call() throws TeamRepositoryException {
+							return exportPage(page, endPosition, columnHeaderMapping, profile, resolveStatistics);
+						}
+					}));
+					morePages = pager.hasNextPage();
+				}
+				// Always write the oldest page to keep the order of the query
+				writePage(getExportedPage(pendingPages.poll()));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Wait for a page that is exported by a worker thread and pass on its
+	 * exceptions.
+	 * 
+	 * @param exportedPage
+	 * @return the page
+	 * @throws TeamRepositoryException
+	 */
+	private ExportedPage getExportedPage(Future<ExportedPage> exportedPage) throws TeamRepositoryException {
+		try {
+			return exportedPage.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WorkItemCommandLineException("Export interrupted", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof TeamRepositoryException) {
+				throw (TeamRepositoryException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new WorkItemCommandLineException(cause);
+		}
+	}
+
+	/**
+	 * Resolve a page of work items and compute their rows. This can run on
+	 * several threads at the same time.
+	 * 
+	 * @param page
+	 * @param endPosition
+	 *            - the position of the end of the page in the query result
+	 * @param columnHeaderMapping
+	 * @param profile
+	 * @param resolveStatistics
+	 * @return the rows in the order of the page
+	 * @throws TeamRepositoryException
+	 */
+	private ExportedPage exportPage(List<IWorkItemHandle> page, int endPosition,
+			ColumnHeaderMappingHelper columnHeaderMapping, ItemProfile<IWorkItem> profile,
+			TimingStatistics resolveStatistics) throws TeamRepositoryException {
+		ExportedPage exportedPage = new ExportedPage(endPosition, page.size());
+		if (fIncrementalExport != null) {
+			exportPageIncremental(page, exportedPage, columnHeaderMapping, profile, resolveStatistics);
+			return exportedPage;
+		}
+		long pageStart = System.currentTimeMillis();
+		List<IWorkItem> resolved = WorkItemUtil.resolveWorkItems(page, profile, getWorkItemCommon(), getMonitor());
+		resolveStatistics.record(page.size(), System.currentTimeMillis() - pageStart);
+		exportedPage.setEndWorkItem(resolved);
+		try {
+			getWorkItemExportHelper().prefetchLinks(resolved);
+			for (IWorkItem workItem : resolved) {
+				if (workItem != null) {
+					exportedPage.addRow(renderRow(workItem, columnHeaderMapping));
+				}
+			}
+		} finally {
+			getWorkItemExportHelper().releaseRowContext();
+		}
+		return exportedPage;
+	}
+
+	/**
+	 * Compute the rows of a page of work items for an incremental export. The
+	 * work items are first resolved with the properties needed to detect
+	 * changes. Only the changed work items are resolved with the profile of the
+	 * columns and exported again, the other rows are taken from the previous
+	 * export.
+	 * 
+	 * @param page
+	 * @param exportedPage
+	 *            - receives the rows in the order of the page
+	 * @param columnHeaderMapping
+	 * @param profile
+	 * @param resolveStatistics
+	 * @throws TeamRepositoryException
+	 */
+	private void exportPageIncremental(List<IWorkItemHandle> page, ExportedPage exportedPage,
+			ColumnHeaderMappingHelper columnHeaderMapping, ItemProfile<IWorkItem> profile,
+			TimingStatistics resolveStatistics) throws TeamRepositoryException {
+		List<IWorkItem> current = WorkItemUtil.resolveWorkItems(page, IncrementalExport.WATERMARK_PROFILE,
+				getWorkItemCommon(), getMonitor());
+		exportedPage.setEndWorkItem(current);
+		List<IWorkItemHandle> changed = new ArrayList<IWorkItemHandle>();
+		for (IWorkItem workItem : current) {
+			if (workItem != null && !fIncrementalExport.isUnchanged(workItem)) {
+				changed.add((IWorkItemHandle) workItem.getItemHandle());
+			}
+		}
+		Map<UUID, String[]> changedRows = new HashMap<UUID, String[]>(changed.size());
+		if (!changed.isEmpty()) {
+			long pageStart = System.currentTimeMillis();
+			List<IWorkItem> resolved = WorkItemUtil.resolveWorkItems(changed, profile, getWorkItemCommon(),
 					getMonitor());
-			if (workItem != null) {
-				ArrayList<String> row = getRow(workItem, columnHeaderMapping.getParameters());
-				writer.writeNext(row.toArray(new String[row.size()]));
-				try {
-					writer.flush();
-				} catch (IOException e) {
-					throw new WorkItemCommandLineException(e);
+			resolveStatistics.record(changed.size(), System.currentTimeMillis() - pageStart);
+			try {
+				getWorkItemExportHelper().prefetchLinks(resolved);
+				for (IWorkItem workItem : resolved) {
+					if (workItem != null) {
+						changedRows.put(workItem.getItemId(), (String[]) renderRow(workItem, columnHeaderMapping));
+					}
+				}
+			} finally {
+				getWorkItemExportHelper().releaseRowContext();
+			}
+		}
+		for (IWorkItem workItem : current) {
+			if (workItem == null) {
+				continue;
+			}
+			String[] row;
+			if (fIncrementalExport.isUnchanged(workItem)) {
+				row = fIncrementalExport.reuseRow(workItem);
+			} else {
+				row = changedRows.get(workItem.getItemId());
+				if (row == null) {
+					continue;
+				}
+				fIncrementalExport.rowExported();
+			}
+			fIncrementalExport.record(workItem);
+			exportedPage.addRow(row);
+		}
+	}
+
+	/**
+	 * Compute the row of a work item, the strings of the columns for CSV or
+	 * the typed values for JSON Lines
+	 * 
+	 * @param workItem
+	 * @param columnHeaderMapping
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private Object[] renderRow(IWorkItem workItem, ColumnHeaderMappingHelper columnHeaderMapping)
+			throws TeamRepositoryException {
+		return getRow(workItem, columnHeaderMapping.getParameters(), columnHeaderMapping.getRenderers());
+	}
+
+	/**
+	 * Write the rows of a page to the export file. If the flush policy
+	 * requires it, the file is flushed after the page and a checkpoint is
+	 * recorded. If the export is split into shards, a new shard is started
+	 * when the current one is full.
+	 * 
+	 * @param exportedPage
+	 */
+	private void writePage(ExportedPage exportedPage) {
+		boolean flushDue = false;
+		for (Object[] row : exportedPage.getRows()) {
+			if (fShards != null) {
+				if (fShards.isFull()) {
+					nextShard();
+				}
+				fShards.rowWritten();
+			}
+			writeRow(row);
+			if (getFlushPolicy().rowWritten()) {
+				flushDue = true;
+			}
+		}
+		if (flushDue) {
+			checkpoint(exportedPage.getEndPosition(), exportedPage.getEndWorkItemId());
+		}
+	}
+
+	/**
+	 * Close the current shard and start the next one with the header row
+	 */
+	private void nextShard() {
+		try {
+			closeWriter();
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception closing export shard: " + fShards.getFile(), e);
+		}
+		openWriter(fShards.nextShard(), fShards.getFile().getAbsolutePath());
+		writeHeader();
+	}
+
+	/**
+	 * Write the header row, JSON Lines have no header
+	 */
+	private void writeHeader() {
+		if (fWriter != null) {
+			fWriter.writeNext(fHeader);
+		}
+	}
+
+	/**
+	 * Write a row to the export file
+	 * 
+	 * @param row
+	 */
+	private void writeRow(Object[] row) {
+		if (fJsonWriter != null) {
+			try {
+				fJsonWriter.writeNext(row);
+			} catch (IOException e) {
+				throw new WorkItemCommandLineException(e);
+			}
+			return;
+		}
+		fWriter.writeNext((String[]) row);
+	}
+
+	/**
+	 * Flush the export file and record the position in the journal. The
+	 * position is only recorded when the attachments of the rows written are
+	 * saved, so that a resumed export does not skip rows with missing
+	 * attachments. After an attachment failed, the position is not recorded
+	 * any more and a resumed export writes the rows after the last checkpoint
+	 * again.
+	 * 
+	 * @param position
+	 *            - the number of work items of the query result written
+	 * @param workItemId
+	 *            - the work item at the position, 0 if unknown
+	 */
+	private void checkpoint(int position, int workItemId) {
+		flush();
+		if (fJournal != null) {
+			if (fAttachmentDownloader != null) {
+				fAttachmentDownloader.awaitDownloads();
+				if (fAttachmentDownloader.hasFailures()) {
+					return;
 				}
 			}
+			fJournal.checkpoint(position, workItemId);
+		}
+	}
+
+	/**
+	 * Flush the export file
+	 */
+	private void flush() {
+		try {
+			if (fJsonWriter != null) {
+				fJsonWriter.flush();
+			} else {
+				fWriter.flush();
+			}
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException(e);
 		}
+		getFlushPolicy().flushed();
 	}
 
 	/**
-	 * Get the values for a row from the work items attributes.
+	 * Get the values for a row from the work items attributes. For JSON Lines
+	 * the values are typed, otherwise they are strings.
 	 * 
 	 * @param workItem
 	 * @param columns
+	 * @param renderers
+	 *            - the renderers for the columns
 	 * @return
 	 * @throws WorkItemCommandLineException
 	 * @throws TeamRepositoryException
 	 */
-	private ArrayList<String> getRow(IWorkItem workItem, List<ParameterValue> columns)
+	private Object[] getRow(IWorkItem workItem, List<ParameterValue> columns, List<IColumnRenderer> renderers)
 			throws WorkItemCommandLineException, TeamRepositoryException {
-		ArrayList<String> row = new ArrayList<String>(columns.size());
+		Object[] row = fJsonLines ? new Object[columns.size()] : new String[columns.size()];
 		getResult().appendResultString("Exporting work item " + workItem.getId());
 		for (int i = 0; i < columns.size(); i++) {
 			ParameterValue column = columns.get(i);
-			String value = "";
+			Object value = fJsonLines ? null : "";
 			try {
-				value = getStringRepresentation(workItem, column);
+				if (fJsonLines) {
+					value = renderers.get(i).renderTyped(workItem);
+				} else {
+					value = renderers.get(i).render(workItem);
+				}
 			} catch (WorkItemCommandLineException e) {
 				String message = "Exception exporting work item " + workItem.getId() + " column " + i + " attribute "
 						+ column.getAttributeID() + " : " + e.getMessage();
@@ -410,41 +1164,11 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 				this.getResult().appendResultString(message);
 				throw e;
 			}
-			row.add(i, value);
+			row[i] = value;
 		}
 		return row;
 	}
 
-	/**
-	 * This method tries to get the matching representation of the value to be
-	 * set for a work item attribute. It basically goes through a list of
-	 * properties an attribute can have and locates the target type. Based on
-	 * that type it tries to create a matching value. The value is returned if
-	 * it was possible to create it.
-	 * 
-	 * @param column
-	 *            - the IAttribute to find the representation for
-	 * @param value
-	 *            - the string value that is to be transformed.
-	 * @param value2
-	 * @return
-	 * @throws TeamRepositoryException
-	 * @throws WorkItemCommandLineException
-	 */
-	private String getStringRepresentation(IWorkItem workItem, ParameterValue column)
-			throws TeamRepositoryException, WorkItemCommandLineException {
-		if (column == null) {
-			return CONSTANT_NO_VALUE;
-		}
-
-		String attributeID = column.getAttributeID();
-		if (attributeID == null) {
-			throw new WorkItemCommandLineException("AttributeID can not be null");
-		}
-		IAttribute attribute = column.getIAttribute();
-		return getWorkItemExportHelper().getStringrepresentation(workItem, attributeID, attribute);
-	}
-
 	/**
 	 * Get the getWorkItemExportHelper create it if it does not yet exist.
 	 * 
@@ -485,6 +1209,140 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 		return true;
 	}
 
+	/**
+	 * Set the number of work items to resolve in one server round trip
+	 * 
+	 * @param batchSize
+	 */
+	private void setResolveBatchSize(int batchSize) {
+		fResolveBatchSize = batchSize;
+	}
+
+	/**
+	 * Get the number of work items to resolve in one server round trip
+	 * 
+	 * @return
+	 */
+	private int getResolveBatchSize() {
+		return fResolveBatchSize;
+	}
+
+	/**
+	 * Convert the value of a numeric parameter and make sure it is a positive
+	 * number
+	 * 
+	 * @param name
+	 * @param value
+	 * @return
+	 */
+	private int getPositiveNumber(String name, String value) {
+		int number;
+		try {
+			number = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Parameter " + name + " must be a number >" + value + "<", e);
+		}
+		if (number < 1) {
+			throw new WorkItemCommandLineException("Parameter " + name + " must be greater than 0 >" + value + "<");
+		}
+		return number;
+	}
+
+	/**
+	 * Convert the value of a size parameter in bytes, the suffixes K, M and G
+	 * multiply by 1024, 1024^2 and 1024^3
+	 * 
+	 * @param name
+	 * @param value
+	 * @return
+	 */
+	private long getPositiveSize(String name, String value) {
+		String number = value.trim().toUpperCase();
+		long factor = 1;
+		if (number.endsWith("K")) {
+			factor = 1024L;
+		} else if (number.endsWith("M")) {
+			factor = 1024L * 1024L;
+		} else if (number.endsWith("G")) {
+			factor = 1024L * 1024L * 1024L;
+		}
+		if (factor > 1) {
+			number = number.substring(0, number.length() - 1);
+		}
+		long size;
+		try {
+			size = Long.parseLong(number);
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Parameter " + name + " must be a size >" + value + "<", e);
+		}
+		if (size < 1) {
+			throw new WorkItemCommandLineException("Parameter " + name + " must be greater than 0 >" + value + "<");
+		}
+		return size * factor;
+	}
+
+	/**
+	 * Set the number of threads that resolve and render work items
+	 * 
+	 * @param exportThreads
+	 */
+	private void setExportThreads(int exportThreads) {
+		fExportThreads = exportThreads;
+	}
+
+	/**
+	 * @return the number of threads that resolve and render work items
+	 */
+	private int getExportThreads() {
+		return fExportThreads;
+	}
+
+	/**
+	 * Set if the export is resumed from the last checkpoint
+	 * 
+	 * @param resume
+	 */
+	private void setResume(boolean resume) {
+		fResume = resume;
+	}
+
+	/**
+	 * @return true if the export is resumed from the last checkpoint
+	 */
+	private boolean isResume() {
+		return fResume;
+	}
+
+	/**
+	 * @param attachmentThreads
+	 */
+	private void setAttachmentThreads(int attachmentThreads) {
+		fAttachmentThreads = attachmentThreads;
+	}
+
+	/**
+	 * @return the number of threads that download attachments
+	 */
+	private int getAttachmentThreads() {
+		return fAttachmentThreads;
+	}
+
+	/**
+	 * Set when to flush the export file
+	 * 
+	 * @param flushPolicy
+	 */
+	private void setFlushPolicy(FlushPolicy flushPolicy) {
+		fFlushPolicy = flushPolicy;
+	}
+
+	/**
+	 * @return the policy when to flush the export file
+	 */
+	private FlushPolicy getFlushPolicy() {
+		return fFlushPolicy;
+	}
+
 	/**
 	 * Set the file encoding to be used
 	 * 
@@ -584,4 +1442,42 @@ public class ExportWorkItemsCommand extends AbstractTeamRepositoryCommand {
 		return fCSVDefaultSeparator;
 	}	
 	
+
+	/**
+	 * The rows computed for a page of the query result
+	 * 
+	 */
+	private static class ExportedPage {
+		private List<Object[]> fRows;
+		private int fEndPosition;
+		// The work item at the end position, 0 if it could not be resolved
+		private int fEndWorkItemId = 0;
+
+		ExportedPage(int endPosition, int size) {
+			this.fEndPosition = endPosition;
+			this.fRows = new ArrayList<Object[]>(size);
+		}
+
+		void addRow(Object[] row) {
+			fRows.add(row);
+		}
+
+		void setEndWorkItem(List<IWorkItem> resolved) {
+			if (!resolved.isEmpty() && resolved.get(resolved.size() - 1) != null) {
+				fEndWorkItemId = resolved.get(resolved.size() - 1).getId();
+			}
+		}
+
+		List<Object[]> getRows() {
+			return fRows;
+		}
+
+		int getEndPosition() {
+			return fEndPosition;
+		}
+
+		int getEndWorkItemId() {
+			return fEndWorkItemId;
+		}
+	}
 }
@@ -18,21 +18,29 @@ import java.net.URL;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import com.ibm.js.team.workitem.commandline.IWorkItemCommandLineConstants;
 import com.ibm.js.team.workitem.commandline.OperationResult;
 import com.ibm.js.team.workitem.commandline.framework.AbstractWorkItemModificationCommand;
 import com.ibm.js.team.workitem.commandline.framework.ParameterValue;
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.js.team.workitem.commandline.helper.ImportScheduler;
 import com.ibm.js.team.workitem.commandline.helper.WorkItemTypeHelper;
 import com.ibm.js.team.workitem.commandline.helper.WorkItemUpdateHelper;
 import com.ibm.js.team.workitem.commandline.parameter.ColumnHeaderAttributeNameMapper;
+import com.ibm.js.team.workitem.commandline.parameter.Parameter;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterIDMapper;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterList;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterManager;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentArchive;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
 import com.ibm.js.team.workitem.commandline.utils.ReferenceUtil;
 import com.ibm.js.team.workitem.commandline.utils.SimpleDateFormatUtil;
@@ -117,6 +125,10 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	public static final String PARAMETER_CUSTOM_MAPPING_FILE = "mappingFile";
 	public static final String PARAMETER_CUSTOM_MAPPING_FILE_EXAMPLE = "\"C:\\temp\\mapping.xml\"";
 
+	// the number of threads that import rows
+	public static final String PARAMETER_IMPORT_THREADS = "importThreads";
+	public static final String PARAMETER_IMPORT_THREADS_EXAMPLE = "4";
+
 	// The max length of Large HTML is 32769
 	private static final int MAX_COMMENT_LENGTH = (int) (IWorkItem.MAX_LARGE_STRING_BYTES - 100);
 
@@ -154,7 +166,15 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	 * A hashMap, to map the original work item ID to a new work item ID in
 	 * order to be able to map work item links
 	 */
-	private HashMap<String, String> workItemIDMap = new HashMap<String, String>();
+	private Map<String, String> workItemIDMap = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * The parameter manager of the row the current thread imports
+	 */
+	private ThreadLocal<ParameterManager> fRowParameterManager = new ThreadLocal<ParameterManager>();
+
+	// The number of threads that import rows
+	private int fImportThreads = 1;
 
 	/**
 	 * A counter to count the passes in multi pass import to allow work item
@@ -175,6 +195,13 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	
 	// Multi pass mode
 	private boolean fMultipass = false;
+	// The columns of the import file needed in the second pass of a multi
+	// pass import, the original work item IDs first
+	private int[] fLinkColumns = null;
+	private String[] fLinkHeader = null;
+	private int fOriginalIDColumns = 0;
+	// The rows with links kept for the second pass
+	private List<LinkRow> fLinkRows = null;
 	// Use original ID if no mapping was found
 	private boolean fForceLinkCreation = false;
 	// Compatibility mode. In the past during import empty attribute values
@@ -187,6 +214,21 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 
 
 
+	/**
+	 * The columns of a row needed to create the links in the second pass of a
+	 * multi pass import
+	 * 
+	 */
+	private static class LinkRow {
+		private int fRowID;
+		private String[] fValues;
+
+		LinkRow(int rowID, String[] values) {
+			this.fRowID = rowID;
+			this.fValues = values;
+		}
+	}
+
 	/**
 	 * The constructor
 	 * 
@@ -228,6 +270,7 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 		getParameterManager().syntaxAddSwitch(IWorkItemCommandLineConstants.SWITCH_SUPPRESS_MAIL_NOTIFICATION);
 		getParameterManager().syntaxAddSwitch(SWITCH_IGNORE_EMPTY_TARGET_VALUES);
 		getParameterManager().syntaxAddSwitch(SWITCH_SUPPRESS_IGNORED_ATTRIBUTE_WARNINGS);
+		getParameterManager().syntaxAddSwitch(PARAMETER_IMPORT_THREADS, PARAMETER_IMPORT_THREADS_EXAMPLE);
 	}
 
 	/**
@@ -249,7 +292,27 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 				+ IWorkItemCommandLineConstants.PARAMETER_TIMESTAMP_ENCODING_EXAMPLE + "]" + " ["
 				+ IWorkItemCommandLineConstants.PARAMETER_DELIMITER
 				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR
-				+ IWorkItemCommandLineConstants.PARAMETER_DELIMITER_EXAMPLE + "]";
+				+ IWorkItemCommandLineConstants.PARAMETER_DELIMITER_EXAMPLE + "]" + " ["
+				+ IWorkItemCommandLineConstants.PREFIX_SWITCH + PARAMETER_IMPORT_THREADS
+				+ IWorkItemCommandLineConstants.INFIX_PARAMETER_VALUE_SEPARATOR + PARAMETER_IMPORT_THREADS_EXAMPLE
+				+ "]";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.ibm.js.team.workitem.commandline.framework.AbstractCommand#
+	 * getParameterManager()
+	 */
+	@Override
+	protected ParameterManager getParameterManager() {
+		// While a row is imported, the operations use the parameters of the
+		// row
+		ParameterManager rowParameterManager = fRowParameterManager.get();
+		if (rowParameterManager != null) {
+			return rowParameterManager;
+		}
+		return super.getParameterManager();
 	}
 
 	/*
@@ -301,6 +364,11 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 		}
 
 		// Get the required input file to import the data
+		String importThreads = getParameterManager().consumeParameter(PARAMETER_IMPORT_THREADS);
+		if (importThreads != null) {
+			setImportThreads(importThreads);
+		}
+
 		String inputFileName = getParameterManager().consumeParameter(PARAMETER_IMPORT_FILE).trim();
 		File input = new File(inputFileName);
 		if (!(input.exists() && input.canRead())) {
@@ -325,6 +393,9 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 				getResult().appendResultString("...Pass: " + getPassNumber());
 				result &= importItems(projectArea);
 			}
+			for (String cacheStatistics : getValueCache().getStatistics()) {
+				getResult().appendResultString(cacheStatistics);
+			}
 			if (result) {
 				this.setSuccess();
 				return this.getResult();
@@ -348,11 +419,16 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	 */
 	private boolean importItems(IProjectArea projectArea) throws TeamRepositoryException, InvocationTargetException {
 
+		boolean result = true;
+
+		if (getPassNumber() == MULTI_PASS_LINKMAPPING) {
+			// Use the rows and the mapping of the first pass
+			return performLinkMapping(projectArea, result);
+		}
+
 		// Is a custom mapping file configured?
 		String customMappingFile = getParameterManager().consumeParameter(PARAMETER_CUSTOM_MAPPING_FILE);
 
-		boolean result = true;
-
 		fCustomMapping = null;
 		/* Read mapping file if provided */
 		if (customMappingFile != null && new File(customMappingFile).exists()) {
@@ -377,7 +453,11 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	}
 
 	/**
-	 * Perform the full import
+	 * Perform the full import. The rows are read from the file one at a time
+	 * while they are imported, so the memory needed does not grow with the
+	 * size of the import file. With more than one import thread the rows are
+	 * imported by a scheduler. In the first pass of a multi pass import, the
+	 * columns needed to create the links are kept for the second pass.
 	 * 
 	 * @param projectArea
 	 * @param result
@@ -385,16 +465,17 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	 * @throws TeamRepositoryException
 	 * @throws WorkItemCommandLineException
 	 */
-	@SuppressWarnings("resource")
 	private boolean performImport(IProjectArea projectArea, boolean result) throws TeamRepositoryException,
 			WorkItemCommandLineException {
+		CSVReader reader = null;
+		ImportScheduler scheduler = createScheduler();
 		try {
 			// Read the input data with encoding and try to iterate through the
 			// data.
 			// Try to create or update work items based on the data read
 			// @see http://opencsv.sourceforge.net/
 
-			CSVReader reader = new CSVReaderBuilder(
+			reader = new CSVReaderBuilder(
 					new InputStreamReader(new FileInputStream(getImportFile()), getFileEncoding()))
 					.withCSVParser(
 							new CSVParserBuilder().withQuoteChar(getQuoteChar())
@@ -407,12 +488,12 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 
 			debug("Importing File: " + getImportFile().getAbsolutePath());
 			debug("Dumping rows - using ',' as seperator during print.");
-			List<String[]> myEntries = reader.readAll();
 
 			boolean skiptitle = true;
 			String[] header = null;
 			int rowID = 0;
-			for (String[] row : myEntries) {
+			String[] row;
+			while ((row = reader.readNext()) != null) {
 				rowID++;
 				debug("Reading row " + rowID + " : " + Arrays.asList(row).toString());
 				if (skiptitle) {
@@ -420,23 +501,17 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 					// store the header
 					header = row;
 					skiptitle = false;
+					if (getPassNumber() == MULTI_PASS_IMPORT) {
+						initLinkRows(header, attributeNameMapper);
+					}
 					continue;
 				}
-				try {
-					// Try to import the work item
-					result &= updateCreateWorkItem(projectArea, header, row, rowID, attributeNameMapper);
-				} catch (WorkItemCommandLineException e) {
-					if (isIgnoreErrors()) {
-						result = false;
-						getResult().appendResultString(e.getMessage());
-					} else {
-						throw e;
-					}
-					e.printStackTrace();
-				} finally {
-					reader.close();
+				if (getPassNumber() == MULTI_PASS_IMPORT) {
+					addLinkRow(row, rowID);
 				}
+				result &= importOrScheduleRow(scheduler, projectArea, header, row, rowID, attributeNameMapper);
 			}
+			result &= finishImport(scheduler);
 			if (rowID < 2) {
 				result = false;
 				getResult().appendResultString("No useable data found in the import file.");
@@ -453,10 +528,176 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 			result = false;
 			throw new WorkItemCommandLineException(e);
 		} finally {
+			if (scheduler != null) {
+				// Wait for the rows in work before the reader and the
+				// archives are closed
+				scheduler.cancel();
+			}
+			try {
+				if (reader != null) {
+					reader.close();
+				}
+			} catch (IOException e) {
+				throw new WorkItemCommandLineException(e);
+			} finally {
+				AttachmentArchive.closeArchives();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Perform the second pass of a multi pass import. The rows and columns
+	 * kept in the first pass are used to create the links, the import file is
+	 * not read again. Rows without links are skipped.
+	 * 
+	 * @param projectArea
+	 * @param result
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private boolean performLinkMapping(IProjectArea projectArea, boolean result) throws TeamRepositoryException {
+		if (fLinkRows == null) {
+			return result;
+		}
+		ImportScheduler scheduler = createScheduler();
+		try {
+			ColumnHeaderAttributeNameMapper attributeNameMapper = new ColumnHeaderAttributeNameMapper(projectArea,
+					getWorkItemCommon(), getMonitor());
+			debug("Creating links for " + fLinkRows.size() + " rows of the first pass.");
+			for (LinkRow linkRow : fLinkRows) {
+				result &= importOrScheduleRow(scheduler, projectArea, fLinkHeader, linkRow.fValues, linkRow.fRowID,
+						attributeNameMapper);
+			}
+			result &= finishImport(scheduler);
+			debug("Import finished.");
+		} finally {
+			if (scheduler != null) {
+				// Wait for the rows in work before the link rows are dropped
+				scheduler.cancel();
+			}
+			fLinkRows = null;
 		}
 		return result;
 	}
 
+	/**
+	 * Create the scheduler if more than one import thread is used
+	 * 
+	 * @return the scheduler or null
+	 */
+	private ImportScheduler createScheduler() {
+		if (getImportThreads() > 1) {
+			return new ImportScheduler(getImportThreads());
+		}
+		return null;
+	}
+
+	/**
+	 * Import a row or, if there is a scheduler, schedule it to be imported by
+	 * a thread
+	 * 
+	 * @param scheduler
+	 *            - the scheduler or null
+	 * @param projectArea
+	 * @param header
+	 * @param row
+	 * @param rowID
+	 * @param attributeNameMapper
+	 * @return false if the row was not imported
+	 * @throws TeamRepositoryException
+	 */
+	private boolean importOrScheduleRow(ImportScheduler scheduler, IProjectArea projectArea, String[] header,
+			String[] row, int rowID, ColumnHeaderAttributeNameMapper attributeNameMapper)
+			throws TeamRepositoryException {
+		try {
+			if (scheduler != null) {
+				// Schedule the work item to be imported by a thread
+				scheduleRow(scheduler, projectArea, header, row, rowID, attributeNameMapper);
+				return true;
+			}
+			// Try to import the work item
+			return updateCreateWorkItem(projectArea, header, row, rowID, attributeNameMapper);
+		} catch (WorkItemCommandLineException e) {
+			if (!isIgnoreErrors()) {
+				throw e;
+			}
+			getResult().appendResultString(e.getMessage());
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Wait for the scheduled rows and print their summary
+	 * 
+	 * @param scheduler
+	 *            - the scheduler or null
+	 * @return false if a scheduled row was not imported
+	 * @throws TeamRepositoryException
+	 */
+	private boolean finishImport(ImportScheduler scheduler) throws TeamRepositoryException {
+		boolean result = true;
+		if (scheduler != null) {
+			result = scheduler.finish();
+			getResult().appendResultString(scheduler.getSummary());
+		}
+		return result;
+	}
+
+	/**
+	 * Find the columns needed in the second pass of a multi pass import, the
+	 * original work item ID and the links
+	 * 
+	 * @param header
+	 * @param attributeMapping
+	 */
+	private void initLinkRows(String[] header, ColumnHeaderAttributeNameMapper attributeMapping) {
+		List<Integer> columns = new ArrayList<Integer>();
+		fOriginalIDColumns = 0;
+		for (int i = 0; i < header.length; i++) {
+			String targetAttribute = getTargetAttribute(header[i], attributeMapping);
+			if (targetAttribute == null || attributeMapping.getAttribute(targetAttribute) != null) {
+				continue;
+			}
+			if (targetAttribute.trim().toLowerCase().matches(ORIGINAL_WORK_ITEM_ID)) {
+				// Keep the original ID first
+				columns.add(0, i);
+				fOriginalIDColumns++;
+			} else if (attributeMapping.isLinkType(targetAttribute)) {
+				columns.add(i);
+			}
+		}
+		fLinkColumns = new int[columns.size()];
+		fLinkHeader = new String[columns.size()];
+		for (int i = 0; i < fLinkColumns.length; i++) {
+			fLinkColumns[i] = columns.get(i);
+			fLinkHeader[i] = header[fLinkColumns[i]];
+		}
+		fLinkRows = new ArrayList<LinkRow>();
+	}
+
+	/**
+	 * Keep the columns of a row that are needed to create the links in the
+	 * second pass, if the row has any links
+	 * 
+	 * @param row
+	 * @param rowID
+	 */
+	private void addLinkRow(String[] row, int rowID) {
+		String[] values = new String[fLinkColumns.length];
+		boolean hasLinks = false;
+		for (int i = 0; i < fLinkColumns.length; i++) {
+			values[i] = fLinkColumns[i] < row.length ? row[fLinkColumns[i]] : "";
+			if (i >= fOriginalIDColumns && !values[i].trim().equals("")) {
+				hasLinks = true;
+			}
+		}
+		if (hasLinks) {
+			fLinkRows.add(new LinkRow(rowID, values));
+		}
+	}
+
 	/**
 	 * This creates or updates a work item from the information found in a row
 	 * of data. The header is used to find the attributes to map to
@@ -471,7 +712,91 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 	 */
 	private boolean updateCreateWorkItem(IProjectArea projectArea, String[] header, String[] row, int rowID,
 			ColumnHeaderAttributeNameMapper attributeMapping) throws TeamRepositoryException {
+		ParameterList parameters = prepareRow(header, row, rowID, attributeMapping);
+		return importRow(projectArea, parameters, row, rowID);
+	}
 
+	/**
+	 * Schedule a row to be imported by a thread. The row is mapped to the
+	 * parameters in the calling thread, in the order of the import file. The
+	 * row waits for the rows before it that have the same work item ID or
+	 * the ID of a work item it links to.
+	 * 
+	 * @param scheduler
+	 * @param projectArea
+	 * @param header
+	 * @param row
+	 * @param rowID
+	 * @param attributeMapping
+	 * @throws TeamRepositoryException
+	 */
+	private void scheduleRow(ImportScheduler scheduler, final IProjectArea projectArea, String[] header,
+			final String[] row, final int rowID, ColumnHeaderAttributeNameMapper attributeMapping)
+			throws TeamRepositoryException {
+		final ParameterList parameters = prepareRow(header, row, rowID, attributeMapping);
+		Set<String> ids = new HashSet<String>();
+		addParameterValue(ids, parameters, IWorkItem.ID_PROPERTY);
+		String originalWorkItemID = addParameterValue(ids, parameters, ORIGINAL_WORK_ITEM_ID);
+		if (getPassNumber() == MULTI_PASS_LINKMAPPING && originalWorkItemID != null) {
+			ids.add(getMappedWorkItemID(originalWorkItemID));
+		}
+		Set<String> references = new HashSet<String>();
+		for (Parameter parameter : parameters) {
+			if (parameter.getName().startsWith(WorkItemUpdateHelper.PSEUDO_ATTRIBUTE_LINK)
+					&& parameter.getValue() != null) {
+				for (String target : StringUtil.splitStringToList(parameter.getValue(),
+						Pattern.quote(SEPERATOR_LINK_TARGETS))) {
+					references.add(target.trim());
+				}
+			}
+		}
+		scheduler.submit(ids, references, new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws TeamRepositoryException {
+				try {
+					return importRow(projectArea, parameters, row, rowID);
+				} catch (WorkItemCommandLineException e) {
+					if (isIgnoreErrors()) {
+						getResult().appendResultString(e.getMessage());
+						e.printStackTrace();
+						return false;
+					}
+					throw e;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Add the trimmed value of a parameter, if it is provided
+	 * 
+	 * @param values
+	 * @param parameters
+	 * @param name
+	 * @return the value or null
+	 */
+	private String addParameterValue(Collection<String> values, ParameterList parameters, String name) {
+		Parameter parameter = parameters.getParameter(name);
+		if (parameter == null || parameter.getValue() == null || parameter.getValue().trim().equals("")) {
+			return null;
+		}
+		String value = parameter.getValue().trim();
+		values.add(value);
+		return value;
+	}
+
+	/**
+	 * Get the parameters to create or update a work item from a row of data
+	 * and the mapping provided
+	 * 
+	 * @param header
+	 * @param row
+	 * @param rowID
+	 * @param attributeMapping
+	 * @return
+	 */
+	private ParameterList prepareRow(String[] header, String[] row, int rowID,
+			ColumnHeaderAttributeNameMapper attributeMapping) {
 		// Get the parameters for this work item from the CSV data and the
 		// mapping provided
 		ParameterList parameters = processRow(header, row, rowID, attributeMapping);
@@ -498,11 +823,44 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 		}
 		parameters.addSwitch(IWorkItemCommandLineConstants.SWITCH_IMPORT_IGNORE_MISSING_ATTTRIBUTES, "");
 		parameters.addSwitch(IWorkItemCommandLineConstants.SWITCH_ENABLE_DELETE_APPROVALS, "");
+		return parameters;
+	}
+
+	/**
+	 * Create or update the work item of a row with the parameters of the row.
+	 * This can run in several threads at the same time, each row uses its own
+	 * parameter manager.
+	 * 
+	 * @param projectArea
+	 * @param parameters
+	 * @param row
+	 * @param rowID
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private boolean importRow(IProjectArea projectArea, ParameterList parameters, String[] row, int rowID)
+			throws TeamRepositoryException {
 		// For each work item we create a new parameter manager that is then
 		// used in the subsequent call to update or create the work item
-		ParameterManager newParameterManager = new ParameterManager(parameters);
-		// Set the new parameter manager
-		this.setParameterManager(newParameterManager);
+		fRowParameterManager.set(new ParameterManager(parameters));
+		try {
+			return updateCreateWorkItem(projectArea, row, rowID);
+		} finally {
+			fRowParameterManager.remove();
+		}
+	}
+
+	/**
+	 * Create or update the work item of a row with the parameters of the row
+	 * 
+	 * @param projectArea
+	 * @param row
+	 * @param rowID
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private boolean updateCreateWorkItem(IProjectArea projectArea, String[] row, int rowID)
+			throws TeamRepositoryException {
 		// if the mapping provides the work item ID, we can try to find
 		// the work item.
 		String wiID = getParameterManager().consumeParameter(IWorkItem.ID_PROPERTY);
@@ -676,40 +1034,24 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 			String inputAttribute = header[i];
 			String inputValue = row[i];
 			// Target values without mapping
-			String targetAttribute = inputAttribute;
+			String targetAttribute = getTargetAttribute(inputAttribute, attributeMapping);
 			String targetValue = inputValue;
 
+			if (targetAttribute == null) {
+				// There is no mapping for this input attribute to a target
+				// attribute
+				debug("Missing attributeMap for: " + inputAttribute);
+				// If there is a mapping and an attribute does not have an
+				// entry in the mapping, skip the attribute.
+				continue;
+			}
 			if (fCustomMapping != null) {
-				// Get the maps from the mapping
-				Map<String, AttributeMapping> mapping = fCustomMapping.getAttributeMappingsBySourceId();
-				// Get the mapping for the attribute ID's
-				AttributeMapping attrmap = mapping.get(inputAttribute.trim());
-				if (attrmap != null) {
-					// If there is a mapping get the value for the target
-					// attribute
-					// This could be a name or an ID
-					targetAttribute = attrmap.getTargetId();
-					targetAttribute = ParameterIDMapper.getAlias(targetAttribute);
-					// Get the value mapping if exists
-					ValueMapping valuemap = attrmap.getValueMapping(inputValue);
-					if (valuemap != null) {
-						// Get the mapped target value for the attribute
-						targetValue = valuemap.getTargetId();
-					}
-				} else {
-					// There is no mapping for this input attribute to a target
-					// attribute
-					debug("Missing attributeMap for: " + inputAttribute);
-					// If there is a mapping and an attribute does not have an
-					// entry in the mapping, skip the attribute.
-					continue;
-				}
-			} else {
-				// Use an internal mapping, values are not mapped
-				String inputID = inputAttribute.trim();
-				String newMapping = attributeMapping.getID(inputID);
-				if (newMapping != null) {
-					targetAttribute = newMapping;
+				// Get the value mapping if exists
+				AttributeMapping attrmap = fCustomMapping.getAttributeMappingsBySourceId().get(inputAttribute.trim());
+				ValueMapping valuemap = attrmap.getValueMapping(inputValue);
+				if (valuemap != null) {
+					// Get the mapped target value for the attribute
+					targetValue = valuemap.getTargetId();
 				}
 			}
 			if (targetValue != null && !targetValue.equals("")) {
@@ -747,6 +1089,37 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 		return ++fUniqueID;
 	}
 
+	/**
+	 * Get the attribute a column of the import file is mapped to
+	 * 
+	 * @param inputAttribute
+	 *            - the column header
+	 * @param attributeMapping
+	 *            - an internal mapping that maps attributeNames to ID's
+	 * @return the target attribute or null if the custom mapping has no entry
+	 *         for the column
+	 */
+	private String getTargetAttribute(String inputAttribute, ColumnHeaderAttributeNameMapper attributeMapping) {
+		if (fCustomMapping != null) {
+			// Get the maps from the mapping
+			Map<String, AttributeMapping> mapping = fCustomMapping.getAttributeMappingsBySourceId();
+			// Get the mapping for the attribute ID's
+			AttributeMapping attrmap = mapping.get(inputAttribute.trim());
+			if (attrmap == null) {
+				return null;
+			}
+			// If there is a mapping get the value for the target attribute
+			// This could be a name or an ID
+			return ParameterIDMapper.getAlias(attrmap.getTargetId());
+		}
+		// Use an internal mapping, values are not mapped
+		String newMapping = attributeMapping.getID(inputAttribute.trim());
+		if (newMapping != null) {
+			return newMapping;
+		}
+		return inputAttribute;
+	}
+
 	/**
 	 * Process an attribute and try to create a parameter with the data needed
 	 * to create the work item
@@ -1640,6 +2013,33 @@ public class ImportWorkItemsCommand extends AbstractWorkItemModificationCommand
 		return fCSVSeparator ;
 	}
 
+	/**
+	 * Set the number of threads that import rows
+	 * 
+	 * @param importThreads
+	 */
+	private void setImportThreads(String importThreads) {
+		int threads;
+		try {
+			threads = Integer.parseInt(importThreads.trim());
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Parameter " + PARAMETER_IMPORT_THREADS + " must be a number >"
+					+ importThreads + "<", e);
+		}
+		if (threads < 1) {
+			throw new WorkItemCommandLineException("Parameter " + PARAMETER_IMPORT_THREADS
+					+ " must be greater than 0 >" + importThreads + "<");
+		}
+		this.fImportThreads = threads;
+	}
+
+	/**
+	 * @return the number of threads that import rows
+	 */
+	private int getImportThreads() {
+		return fImportThreads;
+	}
+
 
 
 }
@@ -39,6 +39,7 @@ import com.ibm.js.team.workitem.commandline.helper.WorkItemOslcLinkHelper;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterManager;
 import com.ibm.js.team.workitem.commandline.utils.FileUtil;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
+import com.ibm.js.team.workitem.commandline.utils.QueryResultPager;
 import com.ibm.js.team.workitem.commandline.utils.QueryUtil;
 import com.ibm.js.team.workitem.commandline.utils.WorkItemUtil;
 import com.ibm.team.calm.foundation.common.HttpHeaders;
@@ -334,13 +335,12 @@ public class ValidateOSLCLinksCommand extends AbstractTeamRepositoryCommand impl
 
 		ResultSize resultSize = results.getResultSize(getMonitor());
 		logger.trace("Query result size: " + resultSize.getTotal());
-		List<IWorkItemHandle> workItems = new ArrayList<IWorkItemHandle>(resultSize.getTotal());
-		while (results.hasNext(null)) {
-			IResult result = results.next(null);
-			workItems.add((IWorkItemHandle) result.getItem());
-		}
-		for (IWorkItemHandle workItemHandle : workItems) {
-			validateOslcLinks(workItemHandle);
+		// Validate the work items while the query result is read
+		QueryResultPager pager = new QueryResultPager(results, QueryResultPager.DEFAULT_PAGE_SIZE, getMonitor());
+		while (pager.hasNextPage()) {
+			for (IWorkItemHandle workItemHandle : pager.nextPage()) {
+				validateOslcLinks(workItemHandle);
+			}
 		}
 	}
 
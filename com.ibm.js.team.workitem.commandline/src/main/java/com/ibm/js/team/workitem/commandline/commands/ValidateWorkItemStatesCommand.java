@@ -8,7 +8,6 @@
 package com.ibm.js.team.workitem.commandline.commands;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
@@ -23,6 +22,7 @@ import com.ibm.js.team.workitem.commandline.helper.WorkItemLocalLinkHelper;
 import com.ibm.js.team.workitem.commandline.helper.WorkItemStateHelper;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterManager;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
+import com.ibm.js.team.workitem.commandline.utils.QueryResultPager;
 import com.ibm.js.team.workitem.commandline.utils.QueryUtil;
 import com.ibm.js.team.workitem.commandline.utils.WorkItemUtil;
 import com.ibm.team.links.common.IItemReference;
@@ -37,7 +37,6 @@ import com.ibm.team.workitem.common.model.IWorkItemHandle;
 import com.ibm.team.workitem.common.query.IQueryDescriptor;
 import com.ibm.team.workitem.common.query.IQueryResult;
 import com.ibm.team.workitem.common.query.IResult;
-import com.ibm.team.workitem.common.query.ResultSize;
 
 /**
  * Command to export a set of work items to a CSV file set the provided values
@@ -269,25 +268,21 @@ public class ValidateWorkItemStatesCommand extends AbstractTeamRepositoryCommand
 				// Query the work items
 				IQueryResult<IResult> results = QueryUtil.getUnresolvedQueryResult(query, true);
 
-				ResultSize resultSize = results.getResultSize(getMonitor());
-				List<IWorkItemHandle> workItems = new ArrayList<IWorkItemHandle>(resultSize.getTotal());
-				while (results.hasNext(null)) {
-					IResult result = results.next(null);
-					workItems.add((IWorkItemHandle) result.getItem());
-				}
-				results= null; // clear list;
-
-				for (IWorkItemHandle workItemHandle : workItems) {
-					try { 
-						logger.trace("Resolving work item handle: " + workItemHandle.getItemId().getUuidValue());
-						IWorkItem workItem = WorkItemUtil.resolveWorkItem(workItemHandle, IWorkItem.FULL_PROFILE, getWorkItemCommon(),
-								getMonitor());
-						validateStates(""+ workItem.getId());
-						validateLinks(workItem.getId() + "");
-					} catch (Exception e) {
-						logger.warn("Exception resolving work item handle: " + workItemHandle.getItemId().getUuidValue());
-						if (logger.isTraceEnabled()) {
-							e.printStackTrace();
+				// Validate the work items while the query result is read
+				QueryResultPager pager = new QueryResultPager(results, QueryResultPager.DEFAULT_PAGE_SIZE, getMonitor());
+				while (pager.hasNextPage()) {
+					for (IWorkItemHandle workItemHandle : pager.nextPage()) {
+						try { 
+							logger.trace("Resolving work item handle: " + workItemHandle.getItemId().getUuidValue());
+							IWorkItem workItem = WorkItemUtil.resolveWorkItem(workItemHandle, IWorkItem.FULL_PROFILE, getWorkItemCommon(),
+									getMonitor());
+							validateStates(""+ workItem.getId());
+							validateLinks(workItem.getId() + "");
+						} catch (Exception e) {
+							logger.warn("Exception resolving work item handle: " + workItemHandle.getItemId().getUuidValue());
+							if (logger.isTraceEnabled()) {
+								e.printStackTrace();
+							}
 						}
 					}
 				}
@@ -11,10 +11,14 @@ import java.io.IOException;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import com.ibm.js.team.workitem.commandline.OperationResult;
+import com.ibm.js.team.workitem.commandline.helper.ValueResolutionCache;
 import com.ibm.js.team.workitem.commandline.helper.WorkItemUpdateHelper;
 import com.ibm.js.team.workitem.commandline.parameter.Parameter;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterList;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterManager;
+import com.ibm.js.team.workitem.commandline.utils.AccessContextIndex;
+import com.ibm.js.team.workitem.commandline.utils.ContributorIndex;
 import com.ibm.team.repository.common.TeamRepositoryException;
 import com.ibm.team.workitem.client.WorkItemOperation;
 import com.ibm.team.workitem.client.WorkItemWorkingCopy;
@@ -53,6 +57,13 @@ public abstract class AbstractWorkItemModificationCommand extends AbstractTeamRe
 	// updates).
 	private boolean createBackLinks = false;
 
+	// The access contexts looked up by the work items of this run
+	private AccessContextIndex fAccessContextIndex = null;
+	// The contributors looked up by the work items of this run
+	private ContributorIndex fContributorIndex = null;
+	// The values found by the work items of this run
+	private ValueResolutionCache fValueCache = null;
+
 	/**
 	 * Set the flag
 	 * 
@@ -100,6 +111,59 @@ public abstract class AbstractWorkItemModificationCommand extends AbstractTeamRe
 		super(parametermanager);
 	}
 
+	@Override
+	public OperationResult execute(IProgressMonitor monitor) throws TeamRepositoryException {
+		// Look up the data again in each run, it can change in between
+		resetRunState();
+		return super.execute(monitor);
+	}
+
+	/**
+	 * Forget the data looked up by the previous run of the command
+	 */
+	protected synchronized void resetRunState() {
+		fAccessContextIndex = null;
+		fContributorIndex = null;
+		fValueCache = null;
+	}
+
+	/**
+	 * Get the index of the access contexts shared by all work items of this
+	 * run
+	 * 
+	 * @return
+	 */
+	protected synchronized AccessContextIndex getAccessContextIndex() {
+		if (fAccessContextIndex == null) {
+			fAccessContextIndex = new AccessContextIndex(getTeamRepository());
+		}
+		return fAccessContextIndex;
+	}
+
+	/**
+	 * Get the index of the contributors shared by all work items of this run
+	 * 
+	 * @return
+	 */
+	protected synchronized ContributorIndex getContributorIndex() {
+		if (fContributorIndex == null) {
+			fContributorIndex = new ContributorIndex(getTeamRepository());
+		}
+		return fContributorIndex;
+	}
+
+	/**
+	 * Get the cache for values shared by all work items of this run
+	 * 
+	 * @return
+	 */
+	protected synchronized ValueResolutionCache getValueCache() {
+		if (fValueCache == null) {
+			fValueCache = new ValueResolutionCache();
+		}
+		return fValueCache;
+	}
+
 	/**
 	 * The @see com.ibm.team.workitem.client.WorkItemOperation that is used to
 	 * perform the modifications.
@@ -172,6 +236,9 @@ public abstract class AbstractWorkItemModificationCommand extends AbstractTeamRe
 
 		// We use a WorkItemHelper to do the real work
 		WorkItemUpdateHelper workItemHelper = new WorkItemUpdateHelper(workingCopy, arguments, getMonitor());
+		workItemHelper.setAccessContextIndex(getAccessContextIndex());
+		workItemHelper.setContributorIndex(getContributorIndex());
+		workItemHelper.setValueCache(getValueCache());
 
 		// Run through all properties not yet consumed and try to set the values
 		// as provided
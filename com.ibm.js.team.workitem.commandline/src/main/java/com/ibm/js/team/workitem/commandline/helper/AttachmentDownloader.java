@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentArchive;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentUtil;
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.workitem.common.model.IAttachment;
+
+/**
+ * Downloads attachments to disk with a pool of threads, so that the export
+ * can continue with the next rows while the content is retrieved. The number
+ * of waiting downloads is limited. If the limit is reached, the thread that
+ * requests a download retrieves the content itself.
+ * 
+ * Each file is retried by AttachmentUtil. Files that still fail are counted
+ * and reported in the summary, and the failure action of the download is
+ * run.
+ * 
+ */
+public class AttachmentDownloader {
+
+	// The number of downloads that can wait for each thread
+	private static final int QUEUED_DOWNLOADS_PER_THREAD = 16;
+
+	private ThreadPoolExecutor fExecutor;
+	private IProgressMonitor fMonitor;
+	private long fStart = System.currentTimeMillis();
+	private int fFiles = 0;
+	private long fBytes = 0;
+	private List<String> fFailures = new ArrayList<String>();
+	// The downloads that are queued or running
+	private int fPendingDownloads = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param threads
+	 *            - the number of threads that download attachments
+	 * @param monitor
+	 */
+	public AttachmentDownloader(int threads, IProgressMonitor monitor) {
+		super();
+		this.fMonitor = monitor;
+		this.fExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(threads * QUEUED_DOWNLOADS_PER_THREAD),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	/**
+	 * Download an attachment into a folder. The folder must exist.
+	 * 
+	 * @param attachment
+	 * @param folder
+	 * @param onFailure
+	 *            - run if the download fails, can be null
+	 */
+	public void download(final IAttachment attachment, final File folder, final Runnable onFailure) {
+		execute(new Runnable() {
+			@Override
+			public void run() {
+				save(attachment, folder, onFailure);
+			}
+		});
+	}
+
+	/**
+	 * Download an attachment into an archive
+	 * 
+	 * @param attachment
+	 * @param archive
+	 * @param entryName
+	 *            - the path of the file in the archive
+	 * @param onFailure
+	 *            - run if the download fails, can be null
+	 */
+	public void download(final IAttachment attachment, final AttachmentArchive archive, final String entryName,
+			final Runnable onFailure) {
+		execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (archive.add(attachment, entryName, fMonitor)) {
+						downloaded(attachment.getContent().getRawLength());
+					}
+				} catch (TeamRepositoryException e) {
+					failed(entryName, e, onFailure);
+				} catch (RuntimeException e) {
+					failed(entryName, e, onFailure);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Run a download in the pool and count it as pending until it is done
+	 * 
+	 * @param download
+	 */
+	private void execute(final Runnable download) {
+		synchronized (this) {
+			fPendingDownloads++;
+		}
+		fExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					download.run();
+				} finally {
+					downloadDone();
+				}
+			}
+		});
+	}
+
+	private synchronized void downloadDone() {
+		fPendingDownloads--;
+		notifyAll();
+	}
+
+	/**
+	 * Wait until the downloads requested so far are done, e.g. before the rows
+	 * that need them are recorded as exported. Other downloads can be
+	 * requested while waiting.
+	 * 
+	 * @throws WorkItemCommandLineException
+	 */
+	public synchronized void awaitDownloads() throws WorkItemCommandLineException {
+		while (fPendingDownloads > 0) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new WorkItemCommandLineException("Attachment download interrupted", e);
+			}
+		}
+	}
+
+	/**
+	 * Save the attachment and count the result
+	 * 
+	 * @param attachment
+	 * @param folder
+	 * @param onFailure
+	 */
+	private void save(IAttachment attachment, File folder, Runnable onFailure) {
+		String fileName = folder.getAbsolutePath() + File.separator + attachment.getName();
+		try {
+			AttachmentUtil.saveAttachmentToDisk(attachment, folder, fMonitor);
+			downloaded(attachment.getContent().getRawLength());
+		} catch (TeamRepositoryException e) {
+			failed(fileName, e, onFailure);
+		} catch (RuntimeException e) {
+			failed(fileName, e, onFailure);
+		}
+	}
+
+	private synchronized void downloaded(long bytes) {
+		fFiles++;
+		fBytes += bytes;
+	}
+
+	private void failed(String fileName, Exception e, Runnable onFailure) {
+		String message = "Exception saving attachment " + fileName + " : " + e.getMessage();
+		System.out.println(message);
+		synchronized (this) {
+			fFailures.add(message);
+		}
+		if (onFailure != null) {
+			onFailure.run();
+		}
+	}
+
+	/**
+	 * Wait until all downloads are done and stop the threads
+	 * 
+	 * @return a summary of the downloads
+	 * @throws WorkItemCommandLineException
+	 */
+	public String finish() throws WorkItemCommandLineException {
+		fExecutor.shutdown();
+		try {
+			while (!fExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+				System.out.println("Waiting for attachment downloads...");
+			}
+		} catch (InterruptedException e) {
+			fExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new WorkItemCommandLineException("Attachment download interrupted", e);
+		}
+		return getSummary();
+	}
+
+	/**
+	 * @return a summary of the downloads
+	 */
+	public synchronized String getSummary() {
+		long milliseconds = Math.max(1, System.currentTimeMillis() - fStart);
+		return "Attachments: " + fFiles + " files, " + fBytes + " bytes in " + milliseconds + " ms ("
+				+ (fBytes * 1000 / milliseconds) + " bytes/s), " + fFailures.size() + " failures.";
+	}
+
+	/**
+	 * @return true if a download failed
+	 */
+	public synchronized boolean hasFailures() {
+		return !fFailures.isEmpty();
+	}
+
+	/**
+	 * @return the messages of the downloads that failed
+	 */
+	public synchronized List<String> getFailures() {
+		return new ArrayList<String>(fFailures);
+	}
+}
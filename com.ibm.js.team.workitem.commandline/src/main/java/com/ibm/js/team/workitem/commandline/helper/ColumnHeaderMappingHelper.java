@@ -8,16 +8,23 @@
 package com.ibm.js.team.workitem.commandline.helper;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.ibm.js.team.workitem.commandline.framework.ParameterValue;
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
 import com.ibm.js.team.workitem.commandline.parameter.ColumnHeaderAttributeNameMapper;
+import com.ibm.js.team.workitem.commandline.utils.ReferenceUtil;
 import com.ibm.team.process.common.IProjectAreaHandle;
 import com.ibm.team.repository.common.TeamRepositoryException;
 import com.ibm.team.workitem.common.IWorkItemCommon;
+import com.ibm.team.workitem.common.model.AttributeTypes;
+import com.ibm.team.workitem.common.model.IAttribute;
+import com.ibm.team.workitem.common.model.IWorkItem;
+import com.ibm.team.workitem.common.model.ItemProfile;
 
 /**
  * Helper to help with mapping a header or the column definitions to attribute
@@ -34,6 +41,7 @@ public class ColumnHeaderMappingHelper {
 	IProgressMonitor fMonitor;
 
 	List<ParameterValue> columns = new ArrayList<ParameterValue>();
+	List<IColumnRenderer> renderers = new ArrayList<IColumnRenderer>();
 	private String[] fColumns = null;
 	private boolean ignoreErrors = false;
 
@@ -126,6 +134,29 @@ public class ColumnHeaderMappingHelper {
 		return header;
 	}
 
+	/**
+	 * Analyze the column header and create the renderer for each column that
+	 * is used to export the values. This must be run before the renderers can
+	 * be used.
+	 * 
+	 * @param getIDs
+	 * @param exportHelper
+	 *            - the helper that computes the values
+	 * @return
+	 * @throws TeamRepositoryException
+	 * @throws WorkItemCommandLineException
+	 */
+	public List<String> analyzeColumnHeader(boolean getIDs, WorkItemExportHelper exportHelper)
+			throws TeamRepositoryException, WorkItemCommandLineException {
+		List<String> header = analyzeColumnHeader(getIDs);
+		getRenderers().clear();
+		for (ParameterValue column : getParameters()) {
+			exportHelper.registerColumn(column.getAttributeID(), column.getIAttribute());
+			getRenderers().add(exportHelper.createRenderer(column.getAttributeID(), column.getIAttribute()));
+		}
+		return header;
+	}
+
 	/**
 	 * Add a parameter for a column
 	 * 
@@ -145,6 +176,57 @@ public class ColumnHeaderMappingHelper {
 		return this.columns;
 	}
 
+	/**
+	 * Get the renderers for the columns in the order of the parameters
+	 * 
+	 * @return
+	 */
+	public List<IColumnRenderer> getRenderers() {
+		return this.renderers;
+	}
+
+	/**
+	 * Compute the smallest item profile that is needed to export the columns
+	 * that were selected. This must be run after analyzeColumnHeader().
+	 * 
+	 * Links are resolved from the work item references and don't need any
+	 * work item properties. Comments, approvals, subscriptions and
+	 * attachments as well as columns that can not be mapped to an attribute
+	 * use the full profile.
+	 * 
+	 * @return the item profile to resolve the work items with
+	 * @throws TeamRepositoryException
+	 */
+	public ItemProfile<IWorkItem> getItemProfile() throws TeamRepositoryException {
+		Set<String> properties = new LinkedHashSet<String>();
+		// Always needed to compute the workflow, the work item type and the
+		// attachment folder
+		properties.add(IWorkItem.ID_PROPERTY);
+		properties.add(IWorkItem.PROJECT_AREA_PROPERTY);
+		properties.add(IWorkItem.TYPE_PROPERTY);
+		for (ParameterValue column : getParameters()) {
+			IAttribute attribute = column.getIAttribute();
+			if (attribute == null) {
+				if (ReferenceUtil.isLinkType(column.getAttributeID())) {
+					continue;
+				}
+				// Attachments and other pseudo attributes
+				return IWorkItem.FULL_PROFILE;
+			}
+			String attribType = attribute.getAttributeType();
+			if (attribType.equals(AttributeTypes.COMMENTS) || attribType.equals(AttributeTypes.APPROVALS)
+					|| attribType.equals(AttributeTypes.SUBSCRIPTIONS)) {
+				return IWorkItem.FULL_PROFILE;
+			}
+			if (attribute.isBuiltIn()) {
+				properties.add(attribute.getIdentifier());
+			} else {
+				properties.add(IWorkItem.CUSTOM_ATTRIBUTES_PROPERTY);
+			}
+		}
+		return IWorkItem.SMALL_PROFILE.createExtension(new ArrayList<String>(properties));
+	}
+
 	/**
 	 * Set the columns by passing a list of values separated by ','
 	 * 
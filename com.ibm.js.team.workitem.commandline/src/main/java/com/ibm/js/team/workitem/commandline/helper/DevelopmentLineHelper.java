@@ -7,7 +7,13 @@
  *******************************************************************************/
 package com.ibm.js.team.workitem.commandline.helper;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
@@ -20,7 +26,9 @@ import com.ibm.team.process.common.IProjectArea;
 import com.ibm.team.process.common.IProjectAreaHandle;
 import com.ibm.team.repository.client.IItemManager;
 import com.ibm.team.repository.client.ITeamRepository;
+import com.ibm.team.repository.common.IFetchResult;
 import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.repository.common.UUID;
 import com.ibm.team.workitem.client.IAuditableClient;
 import com.ibm.team.workitem.common.model.ItemProfile;
 
@@ -28,6 +36,10 @@ import com.ibm.team.workitem.common.model.ItemProfile;
  * Helper class for development lines and iterations. Allows to find a
  * development line and enclosed iteration for a project area.
  * 
+ * Resolved development lines, iterations and iteration paths are memoized for
+ * the lifetime of the helper. If an iteration of a development line is
+ * resolved the first time, all the iterations of the development line are
+ * fetched level by level to avoid a server round trip per iteration.
  * 
  */
 public class DevelopmentLineHelper {
@@ -46,6 +58,13 @@ public class DevelopmentLineHelper {
 	private ITeamRepository fTeamRepository;
 	private IProgressMonitor fMonitor;
 	private IAuditableClient fAuditableClient;
+	// Memoized development lines and iterations by item UUID
+	private Map<UUID, IDevelopmentLine> fDevelopmentLines = new HashMap<UUID, IDevelopmentLine>();
+	private Map<UUID, IIteration> fIterations = new HashMap<UUID, IIteration>();
+	// Development lines with all iterations fetched
+	private Set<UUID> fPrefetchedDevelopmentLines = new HashSet<UUID>();
+	// Memoized iteration paths by iteration UUID and mode
+	private Map<String, String> fIterationPaths = new HashMap<String, String>();
 
 	/**
 	 * Constructor
@@ -175,15 +194,62 @@ public class DevelopmentLineHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	public IIteration resolveIteration(IIterationHandle handle) throws TeamRepositoryException {
+	public synchronized IIteration resolveIteration(IIterationHandle handle) throws TeamRepositoryException {
 		if (handle instanceof IIteration) {
 			return (IIteration) handle;
 		}
-		IIteration iteration = (IIteration) fTeamRepository.itemManager().fetchCompleteItem((IIterationHandle) handle,
+		IIteration iteration = fIterations.get(handle.getItemId());
+		if (iteration != null) {
+			return iteration;
+		}
+		iteration = (IIteration) fTeamRepository.itemManager().fetchCompleteItem((IIterationHandle) handle,
 				IItemManager.DEFAULT, fMonitor);
+		fIterations.put(iteration.getItemId(), iteration);
+		// The other iterations of the development line are likely needed too
+		prefetchIterations(iteration.getDevelopmentLine());
 		return iteration;
 	}
 
+	/**
+	 * Fetch all iterations of a development line, if this was not yet done.
+	 * The iterations are fetched with one server round trip per level of the
+	 * iteration tree.
+	 * 
+	 * @param handle
+	 * @throws TeamRepositoryException
+	 */
+	private void prefetchIterations(IDevelopmentLineHandle handle) throws TeamRepositoryException {
+		if (handle == null || !fPrefetchedDevelopmentLines.add(handle.getItemId())) {
+			return;
+		}
+		IDevelopmentLine devLine = resolveDevelopmentLine(handle);
+		List<IIterationHandle> level = Arrays.asList(devLine.getIterations());
+		while (!level.isEmpty()) {
+			List<IIterationHandle> nextLevel = new ArrayList<IIterationHandle>();
+			List<IIterationHandle> toFetch = new ArrayList<IIterationHandle>();
+			for (IIterationHandle iterationHandle : level) {
+				IIteration known = fIterations.get(iterationHandle.getItemId());
+				if (known != null) {
+					nextLevel.addAll(Arrays.asList(known.getChildren()));
+				} else {
+					toFetch.add(iterationHandle);
+				}
+			}
+			if (!toFetch.isEmpty()) {
+				IFetchResult fetchResult = fTeamRepository.itemManager().fetchCompleteItemsPermissionAware(toFetch,
+						IItemManager.DEFAULT, fMonitor);
+				for (Object fetched : fetchResult.getRetrievedItems()) {
+					if (fetched instanceof IIteration) {
+						IIteration iteration = (IIteration) fetched;
+						fIterations.put(iteration.getItemId(), iteration);
+						nextLevel.addAll(Arrays.asList(iteration.getChildren()));
+					}
+				}
+			}
+			level = nextLevel;
+		}
+	}
+
 	/**
 	 * Get the IDevelopmentLine object from a handle
 	 * 
@@ -191,12 +257,18 @@ public class DevelopmentLineHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	public IDevelopmentLine resolveDevelopmentLine(IDevelopmentLineHandle handle) throws TeamRepositoryException {
+	public synchronized IDevelopmentLine resolveDevelopmentLine(IDevelopmentLineHandle handle)
+			throws TeamRepositoryException {
 		if (handle instanceof IDevelopmentLine) {
 			return (IDevelopmentLine) handle;
 		}
-		IDevelopmentLine devLine = (IDevelopmentLine) fTeamRepository.itemManager().fetchCompleteItem(handle,
-				IItemManager.DEFAULT, fMonitor);
+		IDevelopmentLine devLine = fDevelopmentLines.get(handle.getItemId());
+		if (devLine != null) {
+			return devLine;
+		}
+		devLine = (IDevelopmentLine) fTeamRepository.itemManager().fetchCompleteItem(handle, IItemManager.DEFAULT,
+				fMonitor);
+		fDevelopmentLines.put(devLine.getItemId(), devLine);
 		return devLine;
 	}
 
@@ -253,15 +325,24 @@ public class DevelopmentLineHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	public String getIterationAsFullPath(IIterationHandle handle, Mode mode) throws TeamRepositoryException {
+	public synchronized String getIterationAsFullPath(IIterationHandle handle, Mode mode)
+			throws TeamRepositoryException {
+		String key = handle.getItemId().getUuidValue() + mode.name();
+		String fullPath = fIterationPaths.get(key);
+		if (fullPath != null) {
+			return fullPath;
+		}
 		IIteration iteration = resolveIteration(handle);
-		String fullPath = getIterationAsString(iteration, mode);
+		fullPath = getIterationAsString(iteration, mode);
 		IIterationHandle parent = iteration.getParent();
 		if (parent == null) {
 			IDevelopmentLineHandle devLineHandle = iteration.getDevelopmentLine();
-			return getDevelopmentLineAsString(devLineHandle, mode) + WorkItemUpdateHelper.PATH_SEPARATOR + fullPath;
+			fullPath = getDevelopmentLineAsString(devLineHandle, mode) + WorkItemUpdateHelper.PATH_SEPARATOR
+					+ fullPath;
 		} else {
-			return getIterationAsFullPath(parent, mode) + WorkItemUpdateHelper.PATH_SEPARATOR + fullPath;
+			fullPath = getIterationAsFullPath(parent, mode) + WorkItemUpdateHelper.PATH_SEPARATOR + fullPath;
 		}
+		fIterationPaths.put(key, fullPath);
+		return fullPath;
 	}
 }
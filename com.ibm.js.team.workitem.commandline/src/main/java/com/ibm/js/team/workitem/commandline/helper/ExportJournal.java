@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+
+/**
+ * The checkpoint journal of an export. It is stored in a file next to the
+ * export file and records how many work items of the query result were
+ * written, the ID of the last work item and the length of the export file at
+ * the time the file was flushed. A failed export can be resumed from the last
+ * checkpoint.
+ * 
+ */
+public class ExportJournal {
+
+	public static final String FILE_EXTENSION = ".journal";
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
+	private static final String KEY_COLUMNS = "columns";
+	private static final String KEY_POSITION = "position";
+	private static final String KEY_WORKITEM = "workItem";
+	private static final String KEY_LENGTH = "length";
+
+	private File fExportFile;
+	private File fJournalFile;
+	private String fColumns;
+	private int fPosition = 0;
+	private int fWorkItemId = 0;
+	private long fLength = 0;
+
+	/**
+	 * Create a new journal for an export file
+	 * 
+	 * @param exportFile
+	 * @param columns
+	 *            - the columns of the export
+	 */
+	public ExportJournal(File exportFile, String columns) {
+		super();
+		this.fExportFile = exportFile;
+		this.fJournalFile = new File(exportFile.getAbsolutePath() + FILE_EXTENSION);
+		this.fColumns = columns;
+	}
+
+	/**
+	 * Load the journal of an export file
+	 * 
+	 * @param exportFile
+	 * @return the journal
+	 * @throws WorkItemCommandLineException
+	 *             if there is no journal
+	 */
+	public static ExportJournal load(File exportFile) throws WorkItemCommandLineException {
+		ExportJournal journal = new ExportJournal(exportFile, null);
+		if (!exportFile.exists() || !journal.fJournalFile.exists()) {
+			throw new WorkItemCommandLineException(
+					"No export to resume found: " + journal.fJournalFile.getAbsolutePath());
+		}
+		Properties properties = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(journal.fJournalFile);
+			properties.load(in);
+			journal.fColumns = properties.getProperty(KEY_COLUMNS);
+			journal.fPosition = Integer.parseInt(properties.getProperty(KEY_POSITION));
+			journal.fWorkItemId = Integer.parseInt(properties.getProperty(KEY_WORKITEM));
+			journal.fLength = Long.parseLong(properties.getProperty(KEY_LENGTH));
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException(
+					"Exception reading journal: " + journal.fJournalFile.getAbsolutePath(), e);
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Journal not valid: " + journal.fJournalFile.getAbsolutePath(), e);
+		} finally {
+			if (in != null) {
+				try {
+					in.close();
+				} catch (IOException e) {
+					// Ignore
+				}
+			}
+		}
+		return journal;
+	}
+
+	/**
+	 * Record a checkpoint. This must be called after the export file was
+	 * flushed.
+	 * 
+	 * @param position
+	 *            - the number of work items of the query result that are
+	 *            written
+	 * @param workItemId
+	 *            - the ID of the work item at the position of the query
+	 *            result, 0 if it is unknown
+	 * @throws WorkItemCommandLineException
+	 */
+	public void checkpoint(int position, int workItemId) throws WorkItemCommandLineException {
+		fPosition = position;
+		fWorkItemId = workItemId;
+		fLength = fExportFile.length();
+		Properties properties = new Properties();
+		properties.setProperty(KEY_COLUMNS, fColumns);
+		properties.setProperty(KEY_POSITION, Integer.toString(fPosition));
+		properties.setProperty(KEY_WORKITEM, Integer.toString(fWorkItemId));
+		properties.setProperty(KEY_LENGTH, Long.toString(fLength));
+		// Write a new journal and replace the old one to never leave a
+		// partial journal behind
+		File tempFile = new File(fJournalFile.getAbsolutePath() + TEMP_FILE_EXTENSION);
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(tempFile);
+			properties.store(out, "Export journal");
+			out.close();
+			out = null;
+			Files.move(tempFile.toPath(), fJournalFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception writing journal: " + fJournalFile.getAbsolutePath(), e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// Ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Cut the export file back to the length of the last checkpoint to remove
+	 * rows written after it.
+	 * 
+	 * @throws WorkItemCommandLineException
+	 */
+	public void truncateExportFile() throws WorkItemCommandLineException {
+		RandomAccessFile file = null;
+		try {
+			file = new RandomAccessFile(fExportFile, "rw");
+			if (file.length() < fLength) {
+				throw new WorkItemCommandLineException(
+						"Export file is shorter than recorded in the journal: " + fExportFile.getAbsolutePath());
+			}
+			file.setLength(fLength);
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception truncating export file: " + fExportFile.getAbsolutePath(),
+					e);
+		} finally {
+			if (file != null) {
+				try {
+					file.close();
+				} catch (IOException e) {
+					// Ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delete the journal after the export completed
+	 */
+	public void delete() {
+		fJournalFile.delete();
+	}
+
+	/**
+	 * @return the columns of the export
+	 */
+	public String getColumns() {
+		return fColumns;
+	}
+
+	/**
+	 * @return the number of work items of the query result that are written
+	 */
+	public int getPosition() {
+		return fPosition;
+	}
+
+	/**
+	 * @return the ID of the work item at the position, 0 if it is unknown
+	 */
+	public int getWorkItemId() {
+		return fWorkItemId;
+	}
+}
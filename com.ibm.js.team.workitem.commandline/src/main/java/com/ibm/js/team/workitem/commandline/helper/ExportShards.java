@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+
+/**
+ * Splits an export into several numbered files, the shards. The export file
+ * <code>export.csv</code> is written as <code>export_001.csv</code>,
+ * <code>export_002.csv</code> and so on. A new shard is started when the
+ * current shard has the maximal number of rows or bytes. The number of bytes
+ * is counted when the data is written to the file, so a shard can exceed the
+ * maximal size by the data that is still buffered.
+ * 
+ * The manifest <code>export.csv.manifest</code> lists the shards with the
+ * range of rows of the export they contain. The rows are numbered from 1 and
+ * do not include the header.
+ * 
+ */
+public class ExportShards {
+
+	public static final String FILE_EXTENSION = ".manifest";
+	private static final String MANIFEST_HEADER = "file,firstRow,lastRow,rows,bytes";
+
+	private File fExportFile;
+	private int fMaxRows;
+	private long fMaxBytes;
+	private List<Shard> fShards = new ArrayList<Shard>();
+	private Shard fCurrent = null;
+	private int fRows = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param exportFile
+	 *            - the export file the shard names are derived from
+	 * @param maxRows
+	 *            - the maximal number of rows of a shard, 0 for no limit
+	 * @param maxBytes
+	 *            - the maximal number of bytes of a shard, 0 for no limit
+	 */
+	public ExportShards(File exportFile, int maxRows, long maxBytes) {
+		super();
+		this.fExportFile = exportFile;
+		this.fMaxRows = maxRows;
+		this.fMaxBytes = maxBytes;
+	}
+
+	/**
+	 * Start the next shard
+	 * 
+	 * @return the stream to write the shard
+	 * @throws WorkItemCommandLineException
+	 */
+	public OutputStream nextShard() throws WorkItemCommandLineException {
+		fCurrent = new Shard(getShardFile(fShards.size() + 1), fRows + 1);
+		fShards.add(fCurrent);
+		try {
+			return new CountingOutputStream(new FileOutputStream(fCurrent.fFile), fCurrent);
+		} catch (FileNotFoundException e) {
+			throw new WorkItemCommandLineException("Exception creating export shard: " + fCurrent.fFile, e);
+		}
+	}
+
+	/**
+	 * Count a row written to the current shard
+	 */
+	public void rowWritten() {
+		fRows++;
+		fCurrent.fRows++;
+	}
+
+	/**
+	 * @return true if the current shard is full and a new shard has to be
+	 *         started before the next row
+	 */
+	public boolean isFull() {
+		if (fMaxRows > 0 && fCurrent.fRows >= fMaxRows) {
+			return true;
+		}
+		return fMaxBytes > 0 && fCurrent.fBytes >= fMaxBytes;
+	}
+
+	/**
+	 * @return the current shard
+	 */
+	public File getFile() {
+		return fCurrent.fFile;
+	}
+
+	/**
+	 * Get the name of a shard: the number is inserted before the extension
+	 * of the export file.
+	 * 
+	 * @param number
+	 * @return
+	 */
+	private File getShardFile(int number) {
+		String name = fExportFile.getName();
+		String extension = "";
+		int dot = name.lastIndexOf('.');
+		if (dot > 0) {
+			extension = name.substring(dot);
+			name = name.substring(0, dot);
+		}
+		return new File(fExportFile.getAbsoluteFile().getParentFile(),
+				name + "_" + String.format("%03d", number) + extension);
+	}
+
+	/**
+	 * Write the manifest listing the shards
+	 * 
+	 * @throws WorkItemCommandLineException
+	 */
+	public void saveManifest() throws WorkItemCommandLineException {
+		File manifest = new File(fExportFile.getAbsolutePath() + FILE_EXTENSION);
+		PrintWriter out = null;
+		try {
+			out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(manifest), "UTF-8"));
+			out.println(MANIFEST_HEADER);
+			for (Shard shard : fShards) {
+				out.println(shard.fFile.getName() + "," + shard.fFirstRow + ","
+						+ (shard.fFirstRow + shard.fRows - 1) + "," + shard.fRows + "," + shard.fBytes);
+			}
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception writing export manifest: " + manifest, e);
+		} finally {
+			if (out != null) {
+				out.close();
+			}
+		}
+	}
+
+	/**
+	 * @return a summary of the shards
+	 */
+	public String getSummary() {
+		return "Export shards: " + fShards.size() + " files, " + fRows + " rows, manifest " + fExportFile.getName()
+				+ FILE_EXTENSION + ".";
+	}
+
+	/**
+	 * One file of the export
+	 * 
+	 */
+	private static class Shard {
+		private File fFile;
+		private int fFirstRow;
+		private int fRows = 0;
+		private long fBytes = 0;
+
+		Shard(File file, int firstRow) {
+			this.fFile = file;
+			this.fFirstRow = firstRow;
+		}
+	}
+
+	/**
+	 * Counts the bytes written to a shard
+	 * 
+	 */
+	private static class CountingOutputStream extends FilterOutputStream {
+		private Shard fShard;
+
+		CountingOutputStream(OutputStream out, Shard shard) {
+			super(out);
+			this.fShard = shard;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			fShard.fBytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			fShard.fBytes += len;
+		}
+	}
+}
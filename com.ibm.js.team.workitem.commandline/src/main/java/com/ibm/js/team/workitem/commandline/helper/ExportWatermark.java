@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.team.workitem.common.model.IWorkItem;
+
+/**
+ * The watermark of an export. It is stored in a file next to the export file
+ * and records the columns, the latest modification date and the state ID of
+ * each exported work item. An incremental export uses the watermark of the
+ * previous run to find the work items that did not change.
+ * 
+ */
+public class ExportWatermark {
+
+	public static final String FILE_EXTENSION = ".watermark";
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
+	private static final String KEY_COLUMNS = "columns";
+	private static final String KEY_MODIFIED = "modified";
+	private static final String PREFIX_STATE = "state.";
+
+	private String fColumns = null;
+	private long fModified = 0;
+	// The item state ID by work item ID
+	private Map<String, String> fStateIds = new HashMap<String, String>();
+
+	/**
+	 * Create an empty watermark
+	 * 
+	 * @param columns
+	 *            - the columns of the export
+	 */
+	public ExportWatermark(String columns) {
+		super();
+		this.fColumns = columns;
+	}
+
+	/**
+	 * Get the watermark file for an export file
+	 * 
+	 * @param exportFile
+	 * @return
+	 */
+	public static File getFile(File exportFile) {
+		return new File(exportFile.getAbsolutePath() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Load a watermark
+	 * 
+	 * @param file
+	 * @return the watermark
+	 * @throws WorkItemCommandLineException
+	 */
+	public static ExportWatermark load(File file) throws WorkItemCommandLineException {
+		Properties properties = new Properties();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(file);
+			properties.load(in);
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception reading watermark: " + file.getAbsolutePath(), e);
+		} finally {
+			close(in);
+		}
+		ExportWatermark watermark = new ExportWatermark(properties.getProperty(KEY_COLUMNS));
+		try {
+			watermark.fModified = Long.parseLong(properties.getProperty(KEY_MODIFIED, "0"));
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Watermark not valid: " + file.getAbsolutePath(), e);
+		}
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(PREFIX_STATE)) {
+				watermark.fStateIds.put(key.substring(PREFIX_STATE.length()), properties.getProperty(key));
+			}
+		}
+		return watermark;
+	}
+
+	/**
+	 * Save the watermark. A new file is written and replaces the old one, so
+	 * that a partial watermark is never left behind.
+	 * 
+	 * @param file
+	 * @throws WorkItemCommandLineException
+	 */
+	public synchronized void save(File file) throws WorkItemCommandLineException {
+		Properties properties = new Properties();
+		if (fColumns != null) {
+			properties.setProperty(KEY_COLUMNS, fColumns);
+		}
+		properties.setProperty(KEY_MODIFIED, Long.toString(fModified));
+		for (Map.Entry<String, String> entry : fStateIds.entrySet()) {
+			properties.setProperty(PREFIX_STATE + entry.getKey(), entry.getValue());
+		}
+		File tempFile = new File(file.getAbsolutePath() + TEMP_FILE_EXTENSION);
+		OutputStream out = null;
+		try {
+			out = new FileOutputStream(tempFile);
+			properties.store(out, "Export watermark");
+			out.close();
+			out = null;
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception writing watermark: " + file.getAbsolutePath(), e);
+		} finally {
+			close(out);
+		}
+	}
+
+	/**
+	 * Record an exported work item
+	 * 
+	 * @param workItem
+	 *            - the work item, resolved at least with the modified
+	 *            property
+	 */
+	public synchronized void record(IWorkItem workItem) {
+		fStateIds.put(Integer.toString(workItem.getId()), workItem.getStateId().getUuidValue());
+		long modified = workItem.modified().getTime();
+		if (modified > fModified) {
+			fModified = modified;
+		}
+	}
+
+	/**
+	 * Check if a work item is unchanged since the watermark was recorded
+	 * 
+	 * @param workItem
+	 *            - the work item, resolved at least with the modified
+	 *            property
+	 * @return true if the work item was exported with the same state
+	 */
+	public synchronized boolean isUnchanged(IWorkItem workItem) {
+		if (workItem.modified().getTime() > fModified) {
+			return false;
+		}
+		String stateId = fStateIds.get(Integer.toString(workItem.getId()));
+		return workItem.getStateId().getUuidValue().equals(stateId);
+	}
+
+	/**
+	 * @return the columns of the export
+	 */
+	public String getColumns() {
+		return fColumns;
+	}
+
+	/**
+	 * @return the latest modification date of the exported work items
+	 */
+	public synchronized long getModified() {
+		return fModified;
+	}
+
+	/**
+	 * Close a stream and ignore exceptions
+	 * 
+	 * @param stream
+	 */
+	private static void close(Closeable stream) {
+		if (stream == null) {
+			return;
+		}
+		try {
+			stream.close();
+		} catch (IOException e) {
+			// Ignore
+		}
+	}
+}
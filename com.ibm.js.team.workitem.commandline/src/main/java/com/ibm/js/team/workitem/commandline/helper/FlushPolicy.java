@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+
+/**
+ * Decides when a buffered export file is flushed to disk. The file can be
+ * flushed after a number of rows or after a number of seconds since the last
+ * flush.
+ * 
+ * The policy is written as a number of rows e.g. 1000 or a number of seconds
+ * with the suffix s e.g. 30s.
+ * 
+ */
+public class FlushPolicy {
+
+	// The default number of rows between two flushes
+	public static final int DEFAULT_FLUSH_ROWS = 1000;
+	private static final String SUFFIX_SECONDS = "s";
+
+	private long fRows = 0;
+	private long fMilliseconds = 0;
+	private long fRowsSinceFlush = 0;
+	private long fLastFlush = System.currentTimeMillis();
+
+	/**
+	 * Create a policy that flushes after a number of rows
+	 * 
+	 * @param rows
+	 * @return
+	 */
+	public static FlushPolicy everyRows(long rows) {
+		FlushPolicy policy = new FlushPolicy();
+		policy.fRows = rows;
+		return policy;
+	}
+
+	/**
+	 * Create a policy that flushes after a number of seconds
+	 * 
+	 * @param seconds
+	 * @return
+	 */
+	public static FlushPolicy everySeconds(long seconds) {
+		FlushPolicy policy = new FlushPolicy();
+		policy.fMilliseconds = seconds * 1000;
+		return policy;
+	}
+
+	/**
+	 * Create a policy from its string representation e.g. 1000 or 30s
+	 * 
+	 * @param value
+	 * @return
+	 * @throws WorkItemCommandLineException
+	 */
+	public static FlushPolicy parse(String value) throws WorkItemCommandLineException {
+		String policy = value.trim().toLowerCase();
+		boolean seconds = policy.endsWith(SUFFIX_SECONDS);
+		if (seconds) {
+			policy = policy.substring(0, policy.length() - SUFFIX_SECONDS.length()).trim();
+		}
+		long number;
+		try {
+			number = Long.parseLong(policy);
+		} catch (NumberFormatException e) {
+			throw new WorkItemCommandLineException("Flush policy must be a number of rows or seconds e.g. 1000 or 30s >"
+					+ value + "<", e);
+		}
+		if (number < 1) {
+			throw new WorkItemCommandLineException("Flush policy must be greater than 0 >" + value + "<");
+		}
+		return seconds ? everySeconds(number) : everyRows(number);
+	}
+
+	/**
+	 * Count a row that was written
+	 * 
+	 * @return true if the file should be flushed now
+	 */
+	public boolean rowWritten() {
+		fRowsSinceFlush++;
+		if (fRows > 0 && fRowsSinceFlush >= fRows) {
+			return true;
+		}
+		if (fMilliseconds > 0 && System.currentTimeMillis() - fLastFlush >= fMilliseconds) {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tell the policy that the file was flushed
+	 */
+	public void flushed() {
+		fRowsSinceFlush = 0;
+		fLastFlush = System.currentTimeMillis();
+	}
+}
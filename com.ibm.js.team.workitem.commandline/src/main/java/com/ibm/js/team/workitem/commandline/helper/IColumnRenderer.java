@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.workitem.common.model.IWorkItem;
+
+/**
+ * Renders the value of one export column for a work item. A renderer is
+ * created once per column when the column header is analyzed, so the
+ * attribute type does not have to be analyzed again for every cell.
+ * 
+ */
+public interface IColumnRenderer {
+
+	/**
+	 * Compute the string representation of the column for a work item
+	 * 
+	 * @param workItem
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	public String render(IWorkItem workItem) throws TeamRepositoryException;
+
+	/**
+	 * Compute the typed value of the column for a work item, for formats that
+	 * can represent types. The value is a String, a Number, a Boolean or, for
+	 * list attributes, a List of Strings.
+	 * 
+	 * @param workItem
+	 * @return the value or null if the work item has no value
+	 * @throws TeamRepositoryException
+	 */
+	public Object renderTyped(IWorkItem workItem) throws TeamRepositoryException;
+}
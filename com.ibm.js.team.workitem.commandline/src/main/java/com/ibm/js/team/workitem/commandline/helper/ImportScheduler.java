@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.team.repository.common.TeamRepositoryException;
+
+/**
+ * Imports rows with a pool of threads. The rows are submitted in the order of
+ * the import file.
+ * 
+ * Each row is identified by the IDs of the work item it creates or updates,
+ * e.g. the work item ID and the original work item ID. A row that references
+ * the ID of a row submitted before it, e.g. as link target, or that has the
+ * same ID, waits until that row is imported. Rows without such dependencies
+ * are imported at the same time. Only a limited number of rows waits or is
+ * in work, the submitting thread blocks until a row finishes.
+ * 
+ * If a row fails or the import is cancelled, the rows not yet started are
+ * skipped. The failure is passed on by {@link #finish()}.
+ * 
+ */
+public class ImportScheduler {
+
+	// The number of rows that can wait or be in work for each thread
+	private static final int PENDING_ROWS_PER_THREAD = 4;
+
+	private ExecutorService fExecutor;
+	private int fThreads;
+	private int fMaxPendingRows;
+	// The last submitted row that is not finished, by ID
+	private Map<String, Row> fLastRows = new HashMap<String, Row>();
+	private int fPendingRows = 0;
+	private int fRows = 0;
+	private int fWaitingRows = 0;
+	private boolean fResult = true;
+	private Throwable fFailure = null;
+	private boolean fCancelled = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param threads
+	 *            - the number of threads that import rows
+	 */
+	public ImportScheduler(int threads) {
+		super();
+		this.fThreads = threads;
+		this.fMaxPendingRows = threads * PENDING_ROWS_PER_THREAD;
+		this.fExecutor = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Submit a row to be imported as soon as the rows it depends on are
+	 * imported
+	 * 
+	 * @param ids
+	 *            - the IDs of the work item the row creates or updates
+	 * @param references
+	 *            - the IDs of other work items the row references
+	 * @param task
+	 *            - imports the row and returns false if the row was not
+	 *            imported completely
+	 * @throws TeamRepositoryException
+	 *             if a row failed
+	 */
+	public synchronized void submit(Collection<String> ids, Collection<String> references, Callable<Boolean> task)
+			throws TeamRepositoryException {
+		while (fPendingRows >= fMaxPendingRows && fFailure == null) {
+			waitForRow();
+		}
+		checkFailure();
+		Row row = new Row(ids, task);
+		addDependencies(row, ids);
+		addDependencies(row, references);
+		for (String id : ids) {
+			fLastRows.put(id, row);
+		}
+		fPendingRows++;
+		fRows++;
+		if (row.fDependencies > 0) {
+			fWaitingRows++;
+		} else {
+			start(row);
+		}
+	}
+
+	/**
+	 * Wait until all submitted rows are imported and stop the threads
+	 * 
+	 * @return false if a row was not imported completely
+	 * @throws TeamRepositoryException
+	 *             if a row failed
+	 */
+	public synchronized boolean finish() throws TeamRepositoryException {
+		while (fPendingRows > 0) {
+			waitForRow();
+		}
+		fExecutor.shutdown();
+		checkFailure();
+		return fResult;
+	}
+
+	/**
+	 * Skip the rows that are not yet started and stop the threads. Waits until
+	 * the rows in work are completed, so that the resources they use can be
+	 * closed afterwards.
+	 */
+	public void cancel() {
+		synchronized (this) {
+			fCancelled = true;
+			try {
+				while (fPendingRows > 0) {
+					wait();
+				}
+			} catch (InterruptedException e) {
+				fExecutor.shutdownNow();
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		fExecutor.shutdown();
+		try {
+			while (!fExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+				System.out.println("Waiting for import threads...");
+			}
+		} catch (InterruptedException e) {
+			fExecutor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return the number of rows and how many of them waited for other rows
+	 */
+	public synchronized String getSummary() {
+		return "Import threads: " + fThreads + " threads, " + fRows + " rows, " + fWaitingRows
+				+ " rows waited for rows they depend on.";
+	}
+
+	/**
+	 * Make the row wait for the unfinished rows that have one of the IDs
+	 * 
+	 * @param row
+	 * @param ids
+	 */
+	private void addDependencies(Row row, Collection<String> ids) {
+		for (String id : ids) {
+			Row previous = fLastRows.get(id);
+			if (previous != null && previous != row && !previous.fDependents.contains(row)) {
+				previous.fDependents.add(row);
+				row.fDependencies++;
+			}
+		}
+	}
+
+	/**
+	 * Run a row that has no unfinished dependencies
+	 * 
+	 * @param row
+	 */
+	private void start(final Row row) {
+		if (isSkipped()) {
+			finished(row, null, null);
+			return;
+		}
+		fExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				Boolean result = null;
+				Throwable failure = null;
+				if (!isSkipped()) {
+					try {
+						result = row.fTask.call();
+					} catch (Throwable e) {
+						failure = e;
+					}
+				}
+				finished(row, result, failure);
+			}
+		});
+	}
+
+	/**
+	 * @return true if rows that are not yet started are skipped
+	 */
+	private synchronized boolean isSkipped() {
+		return fCancelled || fFailure != null;
+	}
+
+	/**
+	 * Record the result of a row and start the rows that waited for it
+	 * 
+	 * @param row
+	 * @param result
+	 *            - the result or null if the row was skipped or failed
+	 * @param failure
+	 */
+	private synchronized void finished(Row row, Boolean result, Throwable failure) {
+		if (failure != null && fFailure == null) {
+			fFailure = failure;
+		}
+		if (result != null && !result.booleanValue()) {
+			fResult = false;
+		}
+		for (String id : row.fIds) {
+			if (fLastRows.get(id) == row) {
+				fLastRows.remove(id);
+			}
+		}
+		for (Row dependent : row.fDependents) {
+			dependent.fDependencies--;
+			if (dependent.fDependencies == 0) {
+				start(dependent);
+			}
+		}
+		fPendingRows--;
+		notifyAll();
+	}
+
+	/**
+	 * Wait until a row finishes
+	 */
+	private void waitForRow() {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new WorkItemCommandLineException("Import interrupted", e);
+		}
+	}
+
+	/**
+	 * Pass on the failure of a row
+	 * 
+	 * @throws TeamRepositoryException
+	 */
+	private void checkFailure() throws TeamRepositoryException {
+		if (fFailure == null) {
+			return;
+		}
+		if (fFailure instanceof TeamRepositoryException) {
+			throw (TeamRepositoryException) fFailure;
+		}
+		if (fFailure instanceof RuntimeException) {
+			throw (RuntimeException) fFailure;
+		}
+		if (fFailure instanceof Error) {
+			throw (Error) fFailure;
+		}
+		throw new WorkItemCommandLineException(fFailure);
+	}
+
+	/**
+	 * A row to import with the rows that wait for it
+	 * 
+	 */
+	private static class Row {
+		private Collection<String> fIds;
+		private Callable<Boolean> fTask;
+		private int fDependencies = 0;
+		private List<Row> fDependents = new ArrayList<Row>();
+
+		Row(Collection<String> ids, Callable<Boolean> task) {
+			this.fIds = ids;
+			this.fTask = task;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.ibm.team.workitem.common.model.IWorkItem;
+import com.ibm.team.workitem.common.model.ItemProfile;
+
+/**
+ * The state of an incremental export. Work items that did not change since
+ * the previous export reuse the row of the previous export file, all other
+ * work items are exported again. The watermark for the next run is recorded
+ * while exporting.
+ * 
+ */
+public class IncrementalExport {
+
+	// The properties needed to detect if a work item changed
+	public static final ItemProfile<IWorkItem> WATERMARK_PROFILE = IWorkItem.SMALL_PROFILE
+			.createExtension(Arrays.asList(new String[] { IWorkItem.MODIFIED_PROPERTY }));
+
+	private ExportWatermark fPreviousWatermark;
+	private ExportWatermark fWatermark;
+	// The rows of the previous export by work item ID
+	private Map<String, String[]> fPreviousRows;
+	private int fReused = 0;
+	private int fExported = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param previousWatermark
+	 *            - the watermark of the previous export or null to export all
+	 *            work items
+	 * @param watermark
+	 *            - the watermark to record this export
+	 * @param previousRows
+	 *            - the rows of the previous export by work item ID
+	 */
+	public IncrementalExport(ExportWatermark previousWatermark, ExportWatermark watermark,
+			Map<String, String[]> previousRows) {
+		super();
+		this.fPreviousWatermark = previousWatermark;
+		this.fWatermark = watermark;
+		this.fPreviousRows = previousRows;
+	}
+
+	/**
+	 * Check if the row of the previous export can be used for a work item
+	 * 
+	 * @param workItem
+	 *            - the work item resolved with the WATERMARK_PROFILE
+	 * @return
+	 */
+	public boolean isUnchanged(IWorkItem workItem) {
+		if (fPreviousWatermark == null) {
+			return false;
+		}
+		return fPreviousWatermark.isUnchanged(workItem)
+				&& fPreviousRows.containsKey(Integer.toString(workItem.getId()));
+	}
+
+	/**
+	 * Get the row of the previous export for an unchanged work item
+	 * 
+	 * @param workItem
+	 * @return
+	 */
+	public synchronized String[] reuseRow(IWorkItem workItem) {
+		fReused++;
+		return fPreviousRows.get(Integer.toString(workItem.getId()));
+	}
+
+	/**
+	 * Count a work item that was exported again
+	 */
+	public synchronized void rowExported() {
+		fExported++;
+	}
+
+	/**
+	 * Record a work item in the watermark of this export
+	 * 
+	 * @param workItem
+	 *            - the work item resolved with the WATERMARK_PROFILE
+	 */
+	public void record(IWorkItem workItem) {
+		fWatermark.record(workItem);
+	}
+
+	/**
+	 * @return the watermark of this export
+	 */
+	public ExportWatermark getWatermark() {
+		return fWatermark;
+	}
+
+	/**
+	 * @return a summary of the incremental export
+	 */
+	public synchronized String getSummary() {
+		return "Incremental export: " + fReused + " unchanged rows reused, " + fExported + " rows exported.";
+	}
+}
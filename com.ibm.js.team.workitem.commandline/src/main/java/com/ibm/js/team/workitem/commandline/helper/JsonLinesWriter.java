@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes rows as JSON Lines, one JSON object per line. The keys of the
+ * objects are the column headers, in the order of the columns.
+ * 
+ * The values are written directly to the writer without building the objects
+ * in memory. Strings, numbers, booleans and lists of these are written as the
+ * matching JSON types, null as null. Other values are written as strings.
+ * 
+ */
+public class JsonLinesWriter implements Closeable, Flushable {
+
+	private static final String HEX_DIGITS = "0123456789abcdef";
+
+	private Writer fWriter;
+	private String[] fKeys;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 *            - the writer, should be buffered
+	 * @param keys
+	 *            - the keys of the values of a row
+	 */
+	public JsonLinesWriter(Writer writer, String[] keys) {
+		super();
+		this.fWriter = writer;
+		this.fKeys = keys;
+	}
+
+	/**
+	 * Write one row as a JSON object followed by a newline
+	 * 
+	 * @param values
+	 *            - the values in the order of the keys
+	 * @throws IOException
+	 */
+	public void writeNext(Object[] values) throws IOException {
+		fWriter.write('{');
+		for (int i = 0; i < fKeys.length; i++) {
+			if (i > 0) {
+				fWriter.write(',');
+			}
+			writeString(fKeys[i]);
+			fWriter.write(':');
+			writeValue(i < values.length ? values[i] : null);
+		}
+		fWriter.write('}');
+		fWriter.write('\n');
+	}
+
+	/**
+	 * Write a value
+	 * 
+	 * @param value
+	 * @throws IOException
+	 */
+	private void writeValue(Object value) throws IOException {
+		if (value == null) {
+			fWriter.write("null");
+		} else if (value instanceof Boolean) {
+			fWriter.write(value.toString());
+		} else if (value instanceof Number) {
+			writeNumber((Number) value);
+		} else if (value instanceof List<?>) {
+			fWriter.write('[');
+			boolean first = true;
+			for (Object element : (List<?>) value) {
+				if (!first) {
+					fWriter.write(',');
+				}
+				writeValue(element);
+				first = false;
+			}
+			fWriter.write(']');
+		} else {
+			writeString(value.toString());
+		}
+	}
+
+	/**
+	 * Write a number, JSON has no representation for infinity and NaN
+	 * 
+	 * @param number
+	 * @throws IOException
+	 */
+	private void writeNumber(Number number) throws IOException {
+		if ((number instanceof Float && (((Float) number).isNaN() || ((Float) number).isInfinite()))
+				|| (number instanceof Double && (((Double) number).isNaN() || ((Double) number).isInfinite()))) {
+			fWriter.write("null");
+			return;
+		}
+		fWriter.write(number.toString());
+	}
+
+	/**
+	 * Write a string with quotes and the characters escaped that JSON does
+	 * not allow in a string. Runs of characters that need no escape are
+	 * written at once.
+	 * 
+	 * @param value
+	 * @throws IOException
+	 */
+	private void writeString(String value) throws IOException {
+		fWriter.write('"');
+		int start = 0;
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\') {
+				continue;
+			}
+			fWriter.write(value, start, i - start);
+			start = i + 1;
+			switch (c) {
+			case '"':
+				fWriter.write("\\\"");
+				break;
+			case '\\':
+				fWriter.write("\\\\");
+				break;
+			case '\n':
+				fWriter.write("\\n");
+				break;
+			case '\r':
+				fWriter.write("\\r");
+				break;
+			case '\t':
+				fWriter.write("\\t");
+				break;
+			default:
+				fWriter.write("\\u00");
+				fWriter.write(HEX_DIGITS.charAt(c >> 4));
+				fWriter.write(HEX_DIGITS.charAt(c & 0xF));
+			}
+		}
+		fWriter.write(value, start, length - start);
+		fWriter.write('"');
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.Flushable#flush()
+	 */
+	@Override
+	public void flush() throws IOException {
+		fWriter.flush();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+		fWriter.close();
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache for values that are expensive to look up, such as the
+ * string representation of an item. If the cache is full, the least recently
+ * used entry is removed. The cache counts hits and misses to be able to report
+ * them at the end of a run. The cache can be shared by several threads.
+ * 
+ */
+public class LookupCache<K, V> {
+
+	// The default maximal number of entries
+	public static final int DEFAULT_CAPACITY = 10000;
+
+	private String fName;
+	private LinkedHashMap<K, V> fEntries;
+	private long fHits = 0;
+	private long fMisses = 0;
+
+	/**
+	 * Create a cache with the default capacity
+	 * 
+	 * @param name
+	 *            - the name of the cache used in the statistics
+	 */
+	public LookupCache(String name) {
+		this(name, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Create a cache
+	 * 
+	 * @param name
+	 *            - the name of the cache used in the statistics
+	 * @param capacity
+	 *            - the maximal number of entries
+	 */
+	public LookupCache(String name, final int capacity) {
+		super();
+		this.fName = name;
+		this.fEntries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get a cached value and count the hit or miss
+	 * 
+	 * @param key
+	 * @return the value or null if there is no value cached for the key
+	 */
+	public synchronized V get(K key) {
+		V value = fEntries.get(key);
+		if (value == null) {
+			fMisses++;
+		} else {
+			fHits++;
+		}
+		return value;
+	}
+
+	/**
+	 * Check if a value is cached without counting a hit or miss
+	 * 
+	 * @param key
+	 * @return true if there is a value cached for the key
+	 */
+	public synchronized boolean containsKey(K key) {
+		return fEntries.containsKey(key);
+	}
+
+	/**
+	 * Put a value into the cache
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put(K key, V value) {
+		if (key == null || value == null) {
+			return;
+		}
+		fEntries.put(key, value);
+	}
+
+	/**
+	 * Remove all entries, the statistics is kept
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+	}
+
+	/**
+	 * @return the number of hits
+	 */
+	public synchronized long getHits() {
+		return fHits;
+	}
+
+	/**
+	 * @return the number of misses
+	 */
+	public synchronized long getMisses() {
+		return fMisses;
+	}
+
+	/**
+	 * Get the statistics for the cache
+	 * 
+	 * @return
+	 */
+	public synchronized String getStatistics() {
+		long lookups = fHits + fMisses;
+		long hitRate = lookups == 0 ? 0 : fHits * 100 / lookups;
+		return fName + " cache: " + fHits + " hits, " + fMisses + " misses (" + hitRate + "% hits), "
+				+ fEntries.size() + " entries.";
+	}
+}
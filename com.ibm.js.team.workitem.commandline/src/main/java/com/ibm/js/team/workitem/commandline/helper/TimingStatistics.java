@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+/**
+ * Collects the latency of repeated operations such as resolving a page of work
+ * items, to be able to report and tune them at the end of a run.
+ * 
+ */
+public class TimingStatistics {
+
+	private String fName;
+	private long fCount = 0;
+	private long fItems = 0;
+	private long fTotalTime = 0;
+	private long fMinTime = Long.MAX_VALUE;
+	private long fMaxTime = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param name
+	 *            - the name of the operation used in the summary
+	 */
+	public TimingStatistics(String name) {
+		super();
+		this.fName = name;
+	}
+
+	/**
+	 * Record one operation
+	 * 
+	 * @param items
+	 *            - the number of items processed in the operation
+	 * @param milliseconds
+	 *            - the time the operation took
+	 */
+	public synchronized void record(int items, long milliseconds) {
+		fCount++;
+		fItems += items;
+		fTotalTime += milliseconds;
+		if (milliseconds < fMinTime) {
+			fMinTime = milliseconds;
+		}
+		if (milliseconds > fMaxTime) {
+			fMaxTime = milliseconds;
+		}
+	}
+
+	/**
+	 * @return the number of operations recorded
+	 */
+	public synchronized long getCount() {
+		return fCount;
+	}
+
+	/**
+	 * Get a summary of the recorded operations
+	 * 
+	 * @return
+	 */
+	public synchronized String getSummary() {
+		if (fCount == 0) {
+			return fName + ": no operations recorded.";
+		}
+		return fName + ": " + fCount + " operations, " + fItems + " items, total " + fTotalTime + " ms, avg "
+				+ (fTotalTime / fCount) + " ms, min " + fMinTime + " ms, max " + fMaxTime + " ms.";
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.team.process.common.IIteration;
+import com.ibm.team.process.common.IProjectAreaHandle;
+import com.ibm.team.workitem.common.model.ICategoryHandle;
+import com.ibm.team.workitem.common.model.IDeliverable;
+import com.ibm.team.workitem.common.model.ILiteral;
+import com.ibm.team.workitem.common.model.Identifier;
+
+/**
+ * Caches the items found for the values of categories, deliverables,
+ * iterations and enumeration literals when work items are updated. The values
+ * are cached by project area, attribute and input string, so the same value is
+ * only looked up once for all rows of an import or bulk update. Values that
+ * are not found are not cached.
+ * 
+ * A cache is created for one run of a command and shared by all its threads,
+ * so that the next run sees the values changed in between and the statistics
+ * only count this run.
+ * 
+ */
+public class ValueResolutionCache {
+
+	private LookupCache<String, ICategoryHandle> fCategories = new LookupCache<String, ICategoryHandle>(
+			"Category value");
+	private LookupCache<String, IDeliverable> fDeliverables = new LookupCache<String, IDeliverable>(
+			"Deliverable value");
+	private LookupCache<String, IIteration> fIterations = new LookupCache<String, IIteration>("Iteration value");
+	private LookupCache<String, Identifier<? extends ILiteral>> fLiterals =
+			new LookupCache<String, Identifier<? extends ILiteral>>("Enumeration literal value");
+
+	/**
+	 * Constructor
+	 */
+	public ValueResolutionCache() {
+		super();
+	}
+
+	/**
+	 * Get the key for a value
+	 * 
+	 * @param projectArea
+	 * @param attribute
+	 *            - the ID of the attribute
+	 * @param value
+	 *            - the input string
+	 * @return
+	 */
+	public static String getKey(IProjectAreaHandle projectArea, String attribute, String value) {
+		return projectArea.getItemId().getUuidValue() + "/" + attribute + "/" + value;
+	}
+
+	/**
+	 * @return the categories by key
+	 */
+	public LookupCache<String, ICategoryHandle> getCategories() {
+		return fCategories;
+	}
+
+	/**
+	 * @return the deliverables by key
+	 */
+	public LookupCache<String, IDeliverable> getDeliverables() {
+		return fDeliverables;
+	}
+
+	/**
+	 * @return the iterations by key
+	 */
+	public LookupCache<String, IIteration> getIterations() {
+		return fIterations;
+	}
+
+	/**
+	 * @return the enumeration literals by key
+	 */
+	public LookupCache<String, Identifier<? extends ILiteral>> getLiterals() {
+		return fLiterals;
+	}
+
+	/**
+	 * Get the statistics of the caches
+	 * 
+	 * @return
+	 */
+	public List<String> getStatistics() {
+		List<String> statistics = new ArrayList<String>();
+		statistics.add(fCategories.getStatistics());
+		statistics.add(fDeliverables.getStatistics());
+		statistics.add(fIterations.getStatistics());
+		statistics.add(fLiterals.getStatistics());
+		return statistics;
+	}
+}
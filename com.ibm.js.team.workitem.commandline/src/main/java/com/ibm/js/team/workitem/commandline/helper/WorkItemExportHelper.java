@@ -13,23 +13,34 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.ibm.js.team.workitem.commandline.IWorkItemCommandLineConstants;
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterIDMapper;
+import com.ibm.js.team.workitem.commandline.utils.AccessContextIndex;
 import com.ibm.js.team.workitem.commandline.utils.AccessContextUtil;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentArchive;
 import com.ibm.js.team.workitem.commandline.utils.AttachmentUtil;
 import com.ibm.js.team.workitem.commandline.utils.BuildUtil;
+import com.ibm.js.team.workitem.commandline.utils.FileUtil;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
 import com.ibm.js.team.workitem.commandline.utils.ReferenceUtil;
 import com.ibm.js.team.workitem.commandline.utils.SimpleDateFormatUtil;
 import com.ibm.js.team.workitem.commandline.utils.StringUtil;
 import com.ibm.js.team.workitem.commandline.utils.WorkItemUtil;
 import com.ibm.team.build.common.model.IBuildDefinition;
+import com.ibm.team.build.common.model.IBuildDefinitionHandle;
 import com.ibm.team.build.common.model.IBuildResult;
 import com.ibm.team.build.common.model.IBuildResultHandle;
 import com.ibm.team.links.common.IItemReference;
@@ -53,7 +64,6 @@ import com.ibm.team.repository.common.IItemHandle;
 import com.ibm.team.repository.common.TeamRepositoryException;
 import com.ibm.team.repository.common.UUID;
 import com.ibm.team.scm.common.IComponent;
-import com.ibm.team.workitem.common.IAuditableCommon;
 import com.ibm.team.workitem.common.IWorkItemCommon;
 import com.ibm.team.workitem.common.internal.attributeValueProviders.SecurityContextProvider;
 import com.ibm.team.workitem.common.model.AttributeTypes;
@@ -69,7 +79,6 @@ import com.ibm.team.workitem.common.model.IComment;
 import com.ibm.team.workitem.common.model.IComments;
 import com.ibm.team.workitem.common.model.IDeliverable;
 import com.ibm.team.workitem.common.model.IDeliverableHandle;
-import com.ibm.team.workitem.common.model.IEnumeration;
 import com.ibm.team.workitem.common.model.ILiteral;
 import com.ibm.team.workitem.common.model.IResolution;
 import com.ibm.team.workitem.common.model.IState;
@@ -80,7 +89,6 @@ import com.ibm.team.workitem.common.model.IWorkItemReferences;
 import com.ibm.team.workitem.common.model.IWorkItemType;
 import com.ibm.team.workitem.common.model.Identifier;
 import com.ibm.team.workitem.common.model.WorkItemApprovals;
-import com.ibm.team.workitem.common.workflow.IWorkflowInfo;
 
 /**
  * Helper handling of conversion of work item properties into strings.
@@ -88,15 +96,22 @@ import com.ibm.team.workitem.common.workflow.IWorkflowInfo;
  */
 public class WorkItemExportHelper {
 
+	private static Logger fLogger = LogManager.getLogger();
+
 	// NewLine separator for lists in RTC compatible format
 	public static final String SEPERATOR_NEWLINE = "\n";
 	// The default separator for lists such as tags
 	public static final String SEPERATOR_COMMA = ", ";
+	// Comments are separated by an empty line
+	private static final String SEPERATOR_COMMENTS = SEPERATOR_NEWLINE + "\r" + SEPERATOR_NEWLINE;
 	// If there is no value export this
 	public static final String CONSTANT_NO_VALUE = "";
 	// prefix to be used when exporting work item ID's
 	public static final String PREFIX_EXISTINGWORKITEM = "#";
 
+	// The number of work item IDs that are cached
+	private static final int WORK_ITEM_ID_CACHE_CAPACITY = 100000;
+
 	private IProgressMonitor fMonitor;
 	private ITeamRepository fTeamRepository;
 	private String fSimpleDateTimeFormatPattern = IWorkItemCommandLineConstants.TIMESTAMP_EXPORT_IMPORT_FORMAT_MMM_D_YYYY_HH_MM_A;;
@@ -105,6 +120,45 @@ public class WorkItemExportHelper {
 	private boolean fRTCEclipseCompatible = false;
 	// Should there be a prefix for existint work items?
 	private boolean fWorkItemLinkPrefix = true;
+	// Caches for the string representation of referenced items by item UUID
+	private LookupCache<UUID, String> fContributorCache = new LookupCache<UUID, String>("Contributor");
+	private LookupCache<UUID, String> fCategoryCache = new LookupCache<UUID, String>("Category");
+	private LookupCache<UUID, String> fDeliverableCache = new LookupCache<UUID, String>("Deliverable");
+	private LookupCache<UUID, String> fProcessAreaCache = new LookupCache<UUID, String>("Process area");
+	private LookupCache<UUID, String> fItemCache = new LookupCache<UUID, String>("Item");
+	// The names of the restricted access contexts by UUID
+	private LookupCache<UUID, String> fAccessContextCache = new LookupCache<UUID, String>("Access context");
+	// The IDs of linked work items by item UUID, IDs never change
+	private LookupCache<UUID, Integer> fWorkItemIdCache = new LookupCache<UUID, Integer>("Work item ID",
+			WORK_ITEM_ID_CACHE_CAPACITY);
+	// The endpoints of the work item link columns, the IDs of their work items
+	// are resolved for a page of rows at once
+	private Set<IEndPointDescriptor> fWorkItemLinkEndpoints = new LinkedHashSet<IEndPointDescriptor>();
+	// The labels of build results by item UUID
+	private LookupCache<UUID, String> fBuildLabelCache = new LookupCache<UUID, String>("Build");
+	// The endpoints of the build link columns, their build results are
+	// resolved for a page of rows at once
+	private Set<IEndPointDescriptor> fBuildLinkEndpoints = new LinkedHashSet<IEndPointDescriptor>();
+	// Resolves and memoizes iterations
+	private DevelopmentLineHelper fDevelopmentLineHelper = null;
+	// Workflow and enumeration names
+	private WorkItemMetadataCache fMetadataCache = null;
+	// Project areas, team areas and access groups
+	private AccessContextIndex fAccessContextIndex = null;
+	// Downloads attachments in the background, null to download them while
+	// the row is computed
+	private AttachmentDownloader fAttachmentDownloader = null;
+	// Store attachments by content and skip the ones already saved?
+	private boolean fAttachmentsByContent = false;
+	// The attachment files saved in this export
+	private Set<String> fSavedAttachmentFiles = new HashSet<String>();
+	// The number of attachments that did not have to be saved again
+	private long fReusedAttachments = 0;
+	// Stores the attachments in one archive, null to save them as files
+	private AttachmentArchive fAttachmentArchive = null;
+	// The references of the work items of the current page, per thread
+	private ThreadLocal<Map<UUID, IWorkItemReferences>> fPageReferences =
+			new ThreadLocal<Map<UUID, IWorkItemReferences>>();
 
 	public WorkItemExportHelper(ITeamRepository fTeamRepository, IProgressMonitor fMonitor) {
 		super();
@@ -144,10 +198,52 @@ public class WorkItemExportHelper {
 		this.fSaveAttachments = true;
 	}
 
+	/**
+	 * Download the attachments in the background while the rows are
+	 * computed. The caller must finish the downloader at the end of the
+	 * export.
+	 * 
+	 * @param downloader
+	 *            - the downloader or null to download the attachments while
+	 *            the row is computed
+	 */
+	public void setAttachmentDownloader(AttachmentDownloader downloader) {
+		this.fAttachmentDownloader = downloader;
+	}
+
+	/**
+	 * Store the attachments in folders named after their content instead of
+	 * the work item. Attachments with the same content are saved only once
+	 * and files saved by a previous export are not downloaded again.
+	 * 
+	 * @param attachmentsByContent
+	 */
+	public void setAttachmentsByContent(boolean attachmentsByContent) {
+		this.fAttachmentsByContent = attachmentsByContent;
+	}
+
+	/**
+	 * @return if the attachments are stored by content
+	 */
+	private boolean isAttachmentsByContent() {
+		return fAttachmentsByContent;
+	}
+
+	/**
+	 * Save the attachments into an archive instead of the attachment folder.
+	 * The caller must close the archive at the end of the export.
+	 * 
+	 * @param archive
+	 *            - the archive or null to save the attachments as files
+	 */
+	public void setAttachmentArchive(AttachmentArchive archive) {
+		this.fAttachmentArchive = archive;
+	}
+
 	/**
 	 * @return if save attachments is enabled
 	 */
-	private boolean isSaveAttachments() {
+	public boolean isSaveAttachments() {
 		return fSaveAttachments;
 	}
 
@@ -195,6 +291,43 @@ public class WorkItemExportHelper {
 		return fTeamRepository;
 	}
 
+	/**
+	 * Get the development line helper. The helper memoizes the iteration
+	 * paths and is shared for the whole export.
+	 * 
+	 * @return
+	 */
+	private synchronized DevelopmentLineHelper getDevelopmentLineHelper() {
+		if (fDevelopmentLineHelper == null) {
+			fDevelopmentLineHelper = new DevelopmentLineHelper(getTeamRepository(), getMonitor());
+		}
+		return fDevelopmentLineHelper;
+	}
+
+	/**
+	 * Get the cache for the workflow and enumeration names
+	 * 
+	 * @return
+	 */
+	private synchronized WorkItemMetadataCache getMetadataCache() {
+		if (fMetadataCache == null) {
+			fMetadataCache = new WorkItemMetadataCache(getWorkItemCommon(), getMonitor());
+		}
+		return fMetadataCache;
+	}
+
+	/**
+	 * Get the index of the access contexts
+	 * 
+	 * @return
+	 */
+	private synchronized AccessContextIndex getAccessContextIndex() {
+		if (fAccessContextIndex == null) {
+			fAccessContextIndex = new AccessContextIndex(getTeamRepository());
+		}
+		return fAccessContextIndex;
+	}
+
 	/**
 	 * Get the SimpleDateTimeFormat pattern
 	 * 
@@ -211,6 +344,9 @@ public class WorkItemExportHelper {
 	 * that type it tries to create a matching value. The value is returned if
 	 * it was possible to create it.
 	 * 
+	 * To export many work items, create the renderer for the column once using
+	 * createRenderer() and use it for all work items.
+	 * 
 	 * @param workItem
 	 * @param attributeID
 	 * @param attribute
@@ -219,176 +355,481 @@ public class WorkItemExportHelper {
 	 */
 	public String getStringrepresentation(IWorkItem workItem, String attributeID, IAttribute attribute)
 			throws TeamRepositoryException {
+		return createRenderer(attributeID, attribute).render(workItem);
+	}
+
+	/**
+	 * Register an exported column. The items linked by work item link and
+	 * build link columns are resolved for a page of rows in prefetchLinks().
+	 * Call this once for each column of the export.
+	 * 
+	 * @param attributeID
+	 * @param attribute
+	 */
+	public void registerColumn(String attributeID, IAttribute attribute) {
+		if (attribute != null || !ReferenceUtil.isLinkType(attributeID)) {
+			return;
+		}
+		String linkType = ReferenceUtil.getReferenceType(attributeID);
+		if (ReferenceUtil.CATEGORY_LINKTYPE_WORK_ITEM.equals(linkType)) {
+			fWorkItemLinkEndpoints.add(ReferenceUtil.getReferenceEndpointDescriptor(attributeID));
+		} else if (ReferenceUtil.CATEGORY_LINKTYPE_BULD.equals(linkType)) {
+			fBuildLinkEndpoints.add(ReferenceUtil.getReferenceEndpointDescriptor(attributeID));
+		}
+	}
+
+	/**
+	 * Create the renderer for a column. This goes through the list of
+	 * properties an attribute can have and locates the target type once. The
+	 * renderer then creates the matching value for each work item.
+	 * 
+	 * Types that are not supported result in a renderer that throws an
+	 * exception for every work item that has the attribute.
+	 * 
+	 * @param attributeID
+	 * @param attribute
+	 * @return
+	 */
+	public IColumnRenderer createRenderer(final String attributeID, final IAttribute attribute) {
 		if (attribute == null) {
 			// If I don't get an attribute, this is a link or it is not
 			// supported
 			if (ReferenceUtil.isLinkType(attributeID)) {
-				return calculateLinkAsString(workItem, attributeID);
+				return new ListRenderer(SEPERATOR_NEWLINE) {
+					protected List<String> renderList(IWorkItem workItem) throws TeamRepositoryException {
+						return calculateLinks(workItem, attributeID);
+					}
+				};
 			}
 			if (attributeID.trim().toLowerCase().equals(ParameterIDMapper.PSEUDO_ATTRIBUTE_ATTACHMENTS.toLowerCase())) {
-				return calculateAttachmentsAsString(workItem);
+				return new ListRenderer(SEPERATOR_NEWLINE) {
+					protected List<String> renderList(IWorkItem workItem) throws TeamRepositoryException {
+						return calculateAttachments(workItem);
+					}
+				};
 			}
+			return new IColumnRenderer() {
+				public String render(IWorkItem workItem) throws TeamRepositoryException {
+					throw new WorkItemCommandLineException("Attribute not found ID: " + attributeID);
+				}
 
-			throw new WorkItemCommandLineException("Attribute not found ID: " + attributeID);
-		}
-		if (!workItem.hasAttribute(attribute)) {
-			return CONSTANT_NO_VALUE;
+				public Object renderTyped(IWorkItem workItem) throws TeamRepositoryException {
+					return render(workItem);
+				}
+			};
 		}
-		String attribType = attribute.getAttributeType();
+		final String attribType = attribute.getAttributeType();
 
 		if (attribute.getIdentifier().equals(IWorkItem.STATE_PROPERTY)) {
 			// Handle states
-			return calculateStateAsString(workItem);
+			return new AttributeRenderer(attribute) {
+				protected String renderAttribute(IWorkItem workItem) throws TeamRepositoryException {
+					return calculateStateAsString(workItem);
+				}
+			};
 		}
 		if (attribute.getIdentifier().equals(IWorkItem.RESOLUTION_PROPERTY)) {
 			// Handle states
-			return calculateResolutionAsString(workItem);
+			return new AttributeRenderer(attribute) {
+				protected String renderAttribute(IWorkItem workItem) throws TeamRepositoryException {
+					return calculateResolutionAsString(workItem);
+				}
+			};
 		}
 		if (attribType.equals(AttributeTypes.APPROVALS)) {
 			// Handle approvals
-			return calculateApprovalsAsString(workItem);
+			return new ListAttributeRenderer(attribute, SEPERATOR_NEWLINE) {
+				protected List<String> renderAttributeList(IWorkItem workItem) throws TeamRepositoryException {
+					return calculateApprovals(workItem);
+				}
+			};
 		}
 		if (attribType.equals(AttributeTypes.COMMENTS)) {
 			// Handle comments
-			return calculateCommentsAsString(workItem);
+			return new ListAttributeRenderer(attribute, SEPERATOR_COMMENTS) {
+				protected List<String> renderAttributeList(IWorkItem workItem) throws TeamRepositoryException {
+					return calculateComments(workItem);
+				}
+			};
 		}
 		if (attribType.equals(AttributeTypes.SUBSCRIPTIONS)) {
 			// handle subscriptions
-			return calculateSubscriptionsAsString(workItem);
+			return new ListAttributeRenderer(attribute, SEPERATOR_NEWLINE) {
+				protected List<String> renderAttributeList(IWorkItem workItem) throws TeamRepositoryException {
+					return calculateSubscriptions(workItem);
+				}
+			};
 		}
 
-		Object value = workItem.getValue(attribute);
 		// Handle list attribute types first
 		if (AttributeTypes.isListAttributeType(attribType)) {
 			if (AttributeTypes.isItemListAttributeType(attribType)) {
 				// Item List Types that are supported
 				if (attribType.equals(AttributeTypes.CONTRIBUTOR_LIST)) {
 					// A list of contributors
-					return calculateContributorListAsString(value, SEPERATOR_NEWLINE);
+					return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+						protected List<String> renderValueList(IWorkItem workItem, Object value)
+								throws TeamRepositoryException {
+							return calculateContributorList(value);
+						}
+					};
 				}
-				if (attribType.equals(AttributeTypes.PROCESS_AREA_LIST)) {
+				if (attribType.equals(AttributeTypes.PROCESS_AREA_LIST)
+						|| attribType.equals(AttributeTypes.PROJECT_AREA_LIST)
+						|| attribType.equals(AttributeTypes.TEAM_AREA_LIST)) {
 					// A list of process areas (ProjectArea/TeamArea)
-					return calculateProcessAreaListAsString(value, false);
-				}
-				if (attribType.equals(AttributeTypes.PROJECT_AREA_LIST)) {
-					// A list of process areas (ProjectAreas)
-					return calculateProcessAreaListAsString(value, false);
-				}
-				if (attribType.equals(AttributeTypes.TEAM_AREA_LIST)) {
-					// A list of process areas (TeamAreas)
-					return calculateProcessAreaListAsString(value, false);
+					return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+						protected List<String> renderValueList(IWorkItem workItem, Object value)
+								throws TeamRepositoryException {
+							return calculateProcessAreaList(value, false);
+						}
+					};
 				}
 				if (attribType.equals(AttributeTypes.WORK_ITEM_LIST)) {
 					// A list of work items
-					return calculateWorkItemListAsString(value);
+					return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+						protected List<String> renderValueList(IWorkItem workItem, Object value)
+								throws TeamRepositoryException {
+							return calculateWorkItemList(value);
+						}
+					};
 				}
 				if (attribType.equals(AttributeTypes.ITEM_LIST)) {
 					// ItemList with unspecified IItems
-					return calculateItemListAsString(value);
+					return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+						protected List<String> renderValueList(IWorkItem workItem, Object value)
+								throws TeamRepositoryException {
+							return calculateItemList(value);
+						}
+					};
 				}
 			}
 			if (attribType.equals(AttributeTypes.TAGS)) {
 				// Handle Tags - also detected as list type
-				return calculateTagListAsString(value);
+				return new ListValueRenderer(attribute, SEPERATOR_COMMA) {
+					protected List<String> renderValueList(IWorkItem workItem, Object value)
+							throws TeamRepositoryException {
+						return calculateStringList(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.STRING_LIST)) {
 				// A list of strings
-				return calculateStringListAsString(value);
+				return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+					protected List<String> renderValueList(IWorkItem workItem, Object value)
+							throws TeamRepositoryException {
+						return calculateStringList(value);
+					}
+				};
 			}
 			if (AttributeTypes.isEnumerationListAttributeType(attribType)) {
 				// Handle all Enumeration List Types
-				return calculateEnumerationLiteralListAsString(value, attribute);
+				return new ListValueRenderer(attribute, SEPERATOR_NEWLINE) {
+					protected List<String> renderValueList(IWorkItem workItem, Object value)
+							throws TeamRepositoryException {
+						return calculateEnumerationLiteralList(value, attribute);
+					}
+				};
 			}
-			throw new WorkItemCommandLineException("Type not recognized - type not yet supported: " + attribType
+			return new UnsupportedRenderer(attribute, "Type not recognized - type not yet supported: " + attribType
 					+ " ID " + attribute.getIdentifier());
 		} else {
 			// Handle non list types - the simple ones first.
 
-			if (attribType.equals(AttributeTypes.WIKI)) {
-				return calculateString(value);
-			}
-			if (AttributeTypes.STRING_TYPES.contains(attribType)) {
-				return calculateString(value);
-			}
-			if (AttributeTypes.HTML_TYPES.contains(attribType)) {
-				return calculateString(value);
+			if (attribType.equals(AttributeTypes.WIKI) || AttributeTypes.STRING_TYPES.contains(attribType)
+					|| AttributeTypes.HTML_TYPES.contains(attribType)) {
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.BOOLEAN)) {
-				if (value instanceof Boolean) {
-					return ((Boolean) value).toString();
-				}
-				throw new WorkItemCommandLineException("Type not expected - expected boolean: " + attribType + " ID "
-						+ attribute.getIdentifier());
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						if (value instanceof Boolean) {
+							return ((Boolean) value).toString();
+						}
+						throw new WorkItemCommandLineException("Type not expected - expected boolean: " + attribType
+								+ " ID " + attribute.getIdentifier());
+					}
+
+					protected Object renderTypedValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						if (value instanceof Boolean) {
+							return value;
+						}
+						return renderValue(workItem, value);
+					}
+				};
 			}
 			if (AttributeTypes.NUMBER_TYPES.contains(attribType)) {
 				// different number types
-				try {
-					if (attribType.equals(AttributeTypes.DURATION)) {
-						return calculateDurationAsString(value, attribType);
+				final boolean isDuration = attribType.equals(AttributeTypes.DURATION);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						try {
+							if (isDuration) {
+								return calculateDurationAsString(value, attribType);
+							}
+							return calculateNumberAsString(value, attribType);
+						} catch (NumberFormatException e) {
+							throw new WorkItemCommandLineException(
+									"Attribute Value not valid - Number format exception: '" + value + "'", e);
+						}
 					}
-					return calculateNumberAsString(value, attribType);
-				} catch (NumberFormatException e) {
-					throw new WorkItemCommandLineException(
-							"Attribute Value not valid - Number format exception: '" + value + "'", e);
-				}
+
+					protected Object renderTypedValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						// Durations are exported in milliseconds
+						if (value instanceof Number) {
+							return value;
+						}
+						return renderValue(workItem, value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.DELIVERABLE)) {
 				// Handle deliverables - Found In and other attributes
 				// referencing a release.
-				return calculateDeliverableAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateDeliverableAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.CATEGORY)) {
 				// Work item category - Filed Against and other attributes
-				return calculateCategoryAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateCategoryAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.ITERATION)) {
 				// Iterations - Planned For and other such attributes
-				return calculateIterationAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateIterationAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.CONTRIBUTOR)) {
 				// Contributors - user ID's
-				return calculateContributorAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateContributorAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.TIMESTAMP)) {
 				// Timestamp types e.g. dates
-				return calculateTimestampAsString(value);
-			}
-			if (attribType.equals(AttributeTypes.PROJECT_AREA)) {
-				// ProjectArea type attributes
-				return calculateProcessAreaAsString(value, false);
-			}
-			if (attribType.equals(AttributeTypes.TEAM_AREA)) {
-				// TeamArea type attributes
-				return calculateProcessAreaAsString(value, false);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateTimestampAsString(value);
+					}
+
+					protected Object renderTypedValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateTimestampAsISO(value);
+					}
+				};
 			}
-			if (attribType.equals(AttributeTypes.PROCESS_AREA)) {
+			if (attribType.equals(AttributeTypes.PROJECT_AREA) || attribType.equals(AttributeTypes.TEAM_AREA)
+					|| attribType.equals(AttributeTypes.PROCESS_AREA)) {
 				// Process Area type attributes (TeamArea/ProjectArea)
-				return calculateProcessAreaAsString(value, false);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateProcessAreaAsString(value, false);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.WORK_ITEM)) {
 				// Work Item attributes
-				return calculateWorkItemAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateWorkItemAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.ITEM)) {
 				// Handle items where the type is not specified in the attribute
-				return calculateItemAsString(value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateItemAsString(value);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.TYPE)) {
 				// The work item type
-				return calculateWorkItemTypeAsString(workItem, value);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateWorkItemTypeAsString(workItem, value);
+					}
+				};
 			}
 			if (AttributeTypes.isEnumerationAttributeType(attribType)) {
 				// Handle all enumeration types
-				return calculateEnumerationLiteralAsString(value, attribute);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateEnumerationLiteralAsString(value, attribute);
+					}
+				};
 			}
 			if (attribType.equals(AttributeTypes.UUID)) {
 				// The work item restricted Access UUID
-				return calculateUUIDAsString(value, attribute);
+				return new ValueRenderer(attribute) {
+					protected String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+						return calculateUUIDAsString(value, attribute);
+					}
+				};
 			}
 
 			// In case we forgot something or a new type gets implemented
-			throw new WorkItemCommandLineException("AttributeType not yet supported: " + attribType + " ID "
-					+ attribute.getIdentifier());
+			return new UnsupportedRenderer(attribute,
+					"AttributeType not yet supported: " + attribType + " ID " + attribute.getIdentifier());
+		}
+	}
+
+	/**
+	 * Renderer for a column that is backed by an attribute. Work items that
+	 * don't have the attribute get no value.
+	 * 
+	 */
+	private abstract class AttributeRenderer implements IColumnRenderer {
+		protected IAttribute fAttribute;
+
+		AttributeRenderer(IAttribute attribute) {
+			this.fAttribute = attribute;
+		}
+
+		public String render(IWorkItem workItem) throws TeamRepositoryException {
+			if (!workItem.hasAttribute(fAttribute)) {
+				return CONSTANT_NO_VALUE;
+			}
+			return renderAttribute(workItem);
+		}
+
+		public Object renderTyped(IWorkItem workItem) throws TeamRepositoryException {
+			if (!workItem.hasAttribute(fAttribute)) {
+				return null;
+			}
+			return renderTypedAttribute(workItem);
+		}
+
+		protected abstract String renderAttribute(IWorkItem workItem) throws TeamRepositoryException;
+
+		protected Object renderTypedAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			return renderAttribute(workItem);
+		}
+	}
+
+	/**
+	 * Renderer for a column that is computed from the attribute value
+	 * 
+	 */
+	private abstract class ValueRenderer extends AttributeRenderer {
+
+		ValueRenderer(IAttribute attribute) {
+			super(attribute);
+		}
+
+		protected String renderAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			return renderValue(workItem, workItem.getValue(fAttribute));
+		}
+
+		protected Object renderTypedAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			Object value = workItem.getValue(fAttribute);
+			if (value == null) {
+				return null;
+			}
+			return renderTypedValue(workItem, value);
+		}
+
+		protected abstract String renderValue(IWorkItem workItem, Object value) throws TeamRepositoryException;
+
+		protected Object renderTypedValue(IWorkItem workItem, Object value) throws TeamRepositoryException {
+			return renderValue(workItem, value);
+		}
+	}
+
+	/**
+	 * Renderer for a column with a list of values that is not backed by an
+	 * attribute, such as links. The string representation joins the values
+	 * with the separator.
+	 * 
+	 */
+	private abstract class ListRenderer implements IColumnRenderer {
+		private String fSeparator;
+
+		ListRenderer(String separator) {
+			this.fSeparator = separator;
+		}
+
+		public String render(IWorkItem workItem) throws TeamRepositoryException {
+			return StringUtil.listToString(renderList(workItem), fSeparator);
+		}
+
+		public Object renderTyped(IWorkItem workItem) throws TeamRepositoryException {
+			return renderList(workItem);
+		}
+
+		protected abstract List<String> renderList(IWorkItem workItem) throws TeamRepositoryException;
+	}
+
+	/**
+	 * Renderer for an attribute with a list of values. The string
+	 * representation joins the values with the separator.
+	 * 
+	 */
+	private abstract class ListAttributeRenderer extends AttributeRenderer {
+		private String fSeparator;
+
+		ListAttributeRenderer(IAttribute attribute, String separator) {
+			super(attribute);
+			this.fSeparator = separator;
+		}
+
+		protected String renderAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			return StringUtil.listToString(renderAttributeList(workItem), fSeparator);
+		}
+
+		protected Object renderTypedAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			return renderAttributeList(workItem);
+		}
+
+		protected abstract List<String> renderAttributeList(IWorkItem workItem) throws TeamRepositoryException;
+	}
+
+	/**
+	 * Renderer for a list attribute that is computed from the attribute value
+	 * 
+	 */
+	private abstract class ListValueRenderer extends ListAttributeRenderer {
+
+		ListValueRenderer(IAttribute attribute, String separator) {
+			super(attribute, separator);
+		}
+
+		protected List<String> renderAttributeList(IWorkItem workItem) throws TeamRepositoryException {
+			return renderValueList(workItem, workItem.getValue(fAttribute));
+		}
+
+		protected abstract List<String> renderValueList(IWorkItem workItem, Object value)
+				throws TeamRepositoryException;
+	}
+
+	/**
+	 * Renderer for an attribute type that is not supported
+	 * 
+	 */
+	private class UnsupportedRenderer extends AttributeRenderer {
+		private String fMessage;
+
+		UnsupportedRenderer(IAttribute attribute, String message) {
+			super(attribute);
+			this.fMessage = message;
+		}
+
+		protected String renderAttribute(IWorkItem workItem) throws TeamRepositoryException {
+			throw new WorkItemCommandLineException(fMessage);
 		}
 	}
 
@@ -401,10 +842,8 @@ public class WorkItemExportHelper {
 	 */
 	private String calculateResolutionAsString(IWorkItem workItem) throws TeamRepositoryException {
 		Identifier<IResolution> resolution = workItem.getResolution2();
-		IWorkflowInfo workflowInfo;
-		workflowInfo = getWorkItemCommon().getWorkflow(workItem.getWorkItemType(), workItem.getProjectArea(),
-				getMonitor());
-		String name = workflowInfo.getResolutionName(resolution);
+		String name = getMetadataCache().getResolutionName(workItem.getWorkItemType(), workItem.getProjectArea(),
+				resolution);
 		if (name == null) {
 			return name = "";
 		}
@@ -416,12 +855,11 @@ public class WorkItemExportHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateAttachmentsAsString(IWorkItem workItem) throws TeamRepositoryException {
+	private List<String> calculateAttachments(IWorkItem workItem) throws TeamRepositoryException {
 
 		List<String> resultList = new ArrayList<String>();
-		List<IAttachment> attachments = null;
-		// the relative path is only of interest if the attachments are saved
-		String relativePath = "";
+		List<IAttachment> attachments = AttachmentUtil.findAttachments(getWorkItemReferences(workItem),
+				getWorkItemCommon(), getMonitor());
 		// Create a real file name
 		boolean createFileName = false;
 		// Should attachments be saved?
@@ -432,15 +870,16 @@ public class WorkItemExportHelper {
 			if (!isRTCEclipseExport()) {
 				createFileName = true;
 			}
-			relativePath = ParameterIDMapper.PSEUDO_ATTRIBUTE_ATTACHMENTS + File.separator + workItem.getId();
-			String outputFolderName = getOutputFolder() + File.separator + relativePath;
-			attachments = AttachmentUtil.saveAttachmentsToDisk(new File(outputFolderName), workItem,
-					getWorkItemCommon(), getMonitor());
-		} else {
-			attachments = AttachmentUtil.findAttachments(workItem, getWorkItemCommon(), getMonitor());
 		}
 
 		for (IAttachment attachment : attachments) {
+			// the relative path is only of interest if the attachments are
+			// saved
+			String relativePath = "";
+			if (isSaveAttachments()) {
+				relativePath = getAttachmentPath(workItem, attachment);
+				saveAttachment(attachment, relativePath);
+			}
 			String result = "";
 			if (!createFileName) {
 				result = attachment.getName();
@@ -453,7 +892,104 @@ public class WorkItemExportHelper {
 			}
 			resultList.add(result);
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
+	}
+
+	/**
+	 * Get the folder, relative to the output folder, to save an attachment
+	 * into. The folder is named after the work item or, if the attachments are
+	 * stored by content, after the content of the attachment.
+	 * 
+	 * @param workItem
+	 * @param attachment
+	 * @return
+	 */
+	private String getAttachmentPath(IWorkItem workItem, IAttachment attachment) {
+		if (isAttachmentsByContent()) {
+			return ParameterIDMapper.PSEUDO_ATTRIBUTE_ATTACHMENTS + File.separator
+					+ attachment.getContent().getContentId().getUuidValue();
+		}
+		return ParameterIDMapper.PSEUDO_ATTRIBUTE_ATTACHMENTS + File.separator + workItem.getId();
+	}
+
+	/**
+	 * Save an attachment into a folder or the archive, in the background if
+	 * there is a downloader. If the attachments are stored by content,
+	 * attachments that are already saved are skipped. If saving fails, the
+	 * attachment is saved again by the next row that has the same content.
+	 * 
+	 * @param attachment
+	 * @param relativePath
+	 *            - the folder relative to the output folder
+	 * @throws TeamRepositoryException
+	 */
+	private void saveAttachment(IAttachment attachment, String relativePath) throws TeamRepositoryException {
+		File folder = new File(getOutputFolder() + File.separator + relativePath);
+		final String file = folder.getAbsolutePath() + File.separator + attachment.getName();
+		if (isAttachmentsByContent() && !isNewContent(attachment, folder, file)) {
+			return;
+		}
+		String entryName = (relativePath + File.separator + attachment.getName()).replace("\\", "/");
+		if (fAttachmentDownloader != null) {
+			Runnable onFailure = new Runnable() {
+				@Override
+				public void run() {
+					forgetSavedAttachment(file);
+				}
+			};
+			if (fAttachmentArchive != null) {
+				fAttachmentDownloader.download(attachment, fAttachmentArchive, entryName, onFailure);
+			} else {
+				FileUtil.createFolderWithParents(folder);
+				fAttachmentDownloader.download(attachment, folder, onFailure);
+			}
+			return;
+		}
+		boolean saved = false;
+		try {
+			if (fAttachmentArchive != null) {
+				fAttachmentArchive.add(attachment, entryName, getMonitor());
+			} else {
+				FileUtil.createFolderWithParents(folder);
+				AttachmentUtil.saveAttachmentToDisk(attachment, folder, getMonitor());
+			}
+			saved = true;
+		} finally {
+			if (!saved) {
+				forgetSavedAttachment(file);
+			}
+		}
+	}
+
+	/**
+	 * Check if the content of an attachment still has to be saved. The same
+	 * content can be attached several times and can be saved by a previous
+	 * export. The file is marked as saved until {@link #forgetSavedAttachment}
+	 * is called because saving it failed.
+	 * 
+	 * @param attachment
+	 * @param folder
+	 * @param file
+	 *            - the path of the attachment file
+	 * @return true if the content is not yet saved
+	 */
+	private synchronized boolean isNewContent(IAttachment attachment, File folder, String file) {
+		if (!fSavedAttachmentFiles.add(file)
+				|| (fAttachmentArchive == null && AttachmentUtil.isSavedToDisk(attachment, folder))) {
+			fReusedAttachments++;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Forget an attachment file that could not be saved
+	 * 
+	 * @param file
+	 *            - the path of the attachment file
+	 */
+	private synchronized void forgetSavedAttachment(String file) {
+		fSavedAttachmentFiles.remove(file);
 	}
 
 	/**
@@ -464,24 +1000,13 @@ public class WorkItemExportHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateLinkAsString(IWorkItem workItem, String linkTypeID) throws TeamRepositoryException {
+	private List<String> calculateLinks(IWorkItem workItem, String linkTypeID) throws TeamRepositoryException {
 		String linkType = ReferenceUtil.getReferenceType(linkTypeID);
 		if (linkType == null) {
 			throw new WorkItemCommandLineException("Linktype not yet supported: ID " + linkTypeID);
 		}
 		IEndPointDescriptor endpoint = ReferenceUtil.getReferenceEndpointDescriptor(linkTypeID);
-		IWorkItemReferences wiReferences = null;
-		int retry = 0;
-		while (wiReferences == null) {
-			try {
-				wiReferences = getWorkItemCommon().resolveWorkItemReferences(workItem, getMonitor());
-			} catch (TeamRepositoryException e) {
-				retry++;
-				if (retry > 2)
-					throw e;
-				System.out.println("Retry(" + retry + ") get linkTypeID: " + linkTypeID);
-			}
-		}
+		IWorkItemReferences wiReferences = getWorkItemReferences(workItem);
 		List<String> referenceRepresentations = new ArrayList<String>();
 		List<IReference> references = wiReferences.getReferences(endpoint);
 		for (IReference aReference : references) {
@@ -491,9 +1016,8 @@ public class WorkItemExportHelper {
 				if (aReference.isItemReference()) {
 					IItemHandle referencedItem = ((IItemReference) aReference).getReferencedItem();
 					if (referencedItem instanceof IWorkItemHandle) {
-						IWorkItem item = WorkItemUtil.resolveWorkItem((IWorkItemHandle) referencedItem,
-								IWorkItem.ID_PROFILE, getWorkItemCommon(), getMonitor());
-						referenceRepresentations.add(getExistingWorkitemPrefix() + Integer.toString(item.getId()));
+						referenceRepresentations.add(getExistingWorkitemPrefix()
+								+ Integer.toString(getWorkItemId((IWorkItemHandle) referencedItem)));
 					}
 				} else {
 					throw new WorkItemCommandLineException("Unexpected reference type ItemReference expected: "
@@ -507,7 +1031,241 @@ public class WorkItemExportHelper {
 				referenceRepresentations.add(getItemReferenceAsString(aReference, linkTypeID));
 			}
 		}
-		return calculateStringListAsString(referenceRepresentations);
+		return referenceRepresentations;
+	}
+
+	/**
+	 * Get the ID of a linked work item. The ID is taken from the cache that is
+	 * filled for a page of rows by prefetchLinks(), otherwise the
+	 * work item is resolved.
+	 * 
+	 * @param handle
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private int getWorkItemId(IWorkItemHandle handle) throws TeamRepositoryException {
+		Integer id = fWorkItemIdCache.get(handle.getItemId());
+		if (id == null) {
+			IWorkItem item = WorkItemUtil.resolveWorkItem(handle, IWorkItem.ID_PROFILE, getWorkItemCommon(),
+					getMonitor());
+			id = Integer.valueOf(item.getId());
+			fWorkItemIdCache.put(handle.getItemId(), id);
+		}
+		return id.intValue();
+	}
+
+	/**
+	 * Resolve the items linked in the work item and build link columns for a
+	 * page of rows, one server round trip per item type. The IDs of the work
+	 * items and the labels of the builds are cached for the export. The
+	 * references of the work items are kept for the rows until
+	 * releaseRowContext() is called. If the linked items can not be resolved
+	 * together, they are resolved one by one when the rows are computed.
+	 * 
+	 * Call this before the rows of a page are rendered, otherwise the
+	 * references are resolved for each column.
+	 * 
+	 * @param workItems
+	 *            - the work items of the page
+	 * @throws TeamRepositoryException
+	 */
+	public void prefetchLinks(List<IWorkItem> workItems) throws TeamRepositoryException {
+		// Keep the references for the rows of this page
+		fPageReferences.set(new HashMap<UUID, IWorkItemReferences>());
+		if (fWorkItemLinkEndpoints.isEmpty() && fBuildLinkEndpoints.isEmpty()) {
+			return;
+		}
+		Map<UUID, IWorkItemHandle> linkedWorkItems = new HashMap<UUID, IWorkItemHandle>();
+		Map<UUID, IBuildResultHandle> linkedBuilds = new HashMap<UUID, IBuildResultHandle>();
+		for (IWorkItem workItem : workItems) {
+			if (workItem == null) {
+				continue;
+			}
+			IWorkItemReferences references = getWorkItemReferences(workItem);
+			for (IItemHandle item : getReferencedItems(references, fWorkItemLinkEndpoints)) {
+				if (item instanceof IWorkItemHandle && !fWorkItemIdCache.containsKey(item.getItemId())) {
+					linkedWorkItems.put(item.getItemId(), (IWorkItemHandle) item);
+				}
+			}
+			for (IItemHandle item : getReferencedItems(references, fBuildLinkEndpoints)) {
+				if (item instanceof IBuildResultHandle && !fBuildLabelCache.containsKey(item.getItemId())) {
+					linkedBuilds.put(item.getItemId(), (IBuildResultHandle) item);
+				}
+			}
+		}
+		if (!linkedWorkItems.isEmpty()) {
+			prefetchWorkItemIds(new ArrayList<IWorkItemHandle>(linkedWorkItems.values()));
+		}
+		if (!linkedBuilds.isEmpty()) {
+			prefetchBuildLabels(new ArrayList<IBuildResultHandle>(linkedBuilds.values()));
+		}
+	}
+
+	/**
+	 * Get the items referenced by the item references of some endpoints
+	 * 
+	 * @param references
+	 * @param endpoints
+	 * @return
+	 */
+	private List<IItemHandle> getReferencedItems(IWorkItemReferences references,
+			Collection<IEndPointDescriptor> endpoints) {
+		List<IItemHandle> items = new ArrayList<IItemHandle>();
+		for (IEndPointDescriptor endpoint : endpoints) {
+			for (IReference reference : references.getReferences(endpoint)) {
+				if (reference.isItemReference()) {
+					items.add(((IItemReference) reference).getReferencedItem());
+				}
+			}
+		}
+		return items;
+	}
+
+	/**
+	 * Resolve the IDs of linked work items in one server round trip. Linked
+	 * work items that are deleted or not accessible are skipped and resolved
+	 * with the row to report the problem.
+	 * 
+	 * @param handles
+	 */
+	private void prefetchWorkItemIds(List<IWorkItemHandle> handles) {
+		List<IWorkItem> resolved;
+		try {
+			resolved = WorkItemUtil.resolveWorkItemsPermissionAware(handles,
+					Collections.singletonList(IWorkItem.ID_PROPERTY), getTeamRepository(), getMonitor());
+		} catch (TeamRepositoryException e) {
+			fLogger.debug("Prefetching linked work item IDs failed, resolving them by row: " + e.getMessage());
+			return;
+		}
+		for (IWorkItem item : resolved) {
+			fWorkItemIdCache.put(item.getItemId(), Integer.valueOf(item.getId()));
+		}
+	}
+
+	/**
+	 * Resolve the labels of linked build results, and their build definitions
+	 * if needed, with one server round trip each
+	 * 
+	 * @param handles
+	 */
+	private void prefetchBuildLabels(List<IBuildResultHandle> handles) {
+		try {
+			List<IBuildResult> buildResults = BuildUtil.resolveBuildResults(handles, getTeamRepository(),
+					getMonitor());
+			Map<UUID, IBuildDefinition> buildDefinitions = new HashMap<UUID, IBuildDefinition>();
+			if (isRTCEclipseExport()) {
+				Map<UUID, IBuildDefinitionHandle> definitionHandles = new HashMap<UUID, IBuildDefinitionHandle>();
+				for (IBuildResult buildResult : buildResults) {
+					IBuildDefinitionHandle definition = buildResult.getBuildDefinition();
+					definitionHandles.put(definition.getItemId(), definition);
+				}
+				for (IBuildDefinition definition : BuildUtil.resolveBuildDefinitions(
+						new ArrayList<IBuildDefinitionHandle>(definitionHandles.values()), getTeamRepository(),
+						getMonitor())) {
+					buildDefinitions.put(definition.getItemId(), definition);
+				}
+			}
+			for (IBuildResult buildResult : buildResults) {
+				if (isRTCEclipseExport()) {
+					IBuildDefinition definition = buildDefinitions.get(buildResult.getBuildDefinition().getItemId());
+					if (definition == null) {
+						// Resolved with the row to report the problem
+						continue;
+					}
+					fBuildLabelCache.put(buildResult.getItemId(), getBuildLabel(buildResult, definition));
+				} else {
+					fBuildLabelCache.put(buildResult.getItemId(), getBuildLabel(buildResult, null));
+				}
+			}
+		} catch (TeamRepositoryException e) {
+			// The rows resolve the builds one by one and report the problem
+			fLogger.debug("Prefetching linked build labels failed, resolving them by row: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the label of a linked build result as exported, cached by build
+	 * result
+	 * 
+	 * @param handle
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private String getBuildLabel(IBuildResultHandle handle) throws TeamRepositoryException {
+		String label = fBuildLabelCache.get(handle.getItemId());
+		if (label == null) {
+			IBuildResult buildResult = BuildUtil.resolveBuildResult(handle, getTeamRepository(), getMonitor());
+			IBuildDefinition buildDefinition = null;
+			if (isRTCEclipseExport()) {
+				buildDefinition = BuildUtil.resolveBuildDefinition(buildResult.getBuildDefinition(),
+						getTeamRepository(), getMonitor());
+			}
+			label = getBuildLabel(buildResult, buildDefinition);
+			fBuildLabelCache.put(handle.getItemId(), label);
+		}
+		return label;
+	}
+
+	/**
+	 * Get the label of a build result as exported
+	 * 
+	 * @param buildResult
+	 * @param buildDefinition
+	 *            - the definition of the build, only used in the RTC Eclipse
+	 *            compatible format
+	 * @return
+	 */
+	private String getBuildLabel(IBuildResult buildResult, IBuildDefinition buildDefinition) {
+		if (isRTCEclipseExport()) {
+			return buildDefinition.getId() + " " + buildResult.getLabel();
+		}
+		return buildResult.getLabel();
+	}
+
+	/**
+	 * Get the references of a work item of the current page. The references
+	 * are resolved once and shared by all link columns and the attachments of
+	 * the row until releaseRowContext() is called. Each thread has its own
+	 * page. Outside of a page started by prefetchLinks(), e.g. when
+	 * getStringrepresentation() is called for a single work item, the
+	 * references are not kept.
+	 * 
+	 * @param workItem
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private IWorkItemReferences getWorkItemReferences(IWorkItem workItem) throws TeamRepositoryException {
+		Map<UUID, IWorkItemReferences> page = fPageReferences.get();
+		IWorkItemReferences wiReferences = null;
+		if (page != null) {
+			wiReferences = page.get(workItem.getItemId());
+			if (wiReferences != null) {
+				return wiReferences;
+			}
+		}
+		int retry = 0;
+		while (wiReferences == null) {
+			try {
+				wiReferences = getWorkItemCommon().resolveWorkItemReferences(workItem, getMonitor());
+			} catch (TeamRepositoryException e) {
+				retry++;
+				if (retry > 2)
+					throw e;
+				System.out.println("Retry(" + retry + ") get references for: " + workItem.getId());
+			}
+		}
+		if (page != null) {
+			page.put(workItem.getItemId(), wiReferences);
+		}
+		return wiReferences;
+	}
+
+	/**
+	 * Release the data kept for the rows of the current page of this thread.
+	 * Call this after the rows of the page were rendered.
+	 */
+	public void releaseRowContext() {
+		fPageReferences.remove();
 	}
 
 	/**
@@ -534,23 +1292,28 @@ public class WorkItemExportHelper {
 		if (uuid != null && IContext.PUBLIC.equals(uuid)) {
 			return AccessContextUtil.PUBLIC_ACCESS;
 		}
-		Object context = AccessContextUtil.getAccessContextFromUUID(uuid, getTeamRepository(), getAuditableCommon(),
-				getMonitor());
-		if (context == null) {
+		if (uuid == null) {
 			return CONSTANT_NO_VALUE;
 		}
+		String name = fAccessContextCache.get(uuid);
+		if (name != null) {
+			return name;
+		}
+		name = CONSTANT_NO_VALUE;
+		Object context = getAccessContextIndex().getAccessContext(uuid, getMonitor());
 		if (context instanceof IProcessArea) {
 			IProcessArea pa = (IProcessArea) context;
 			if (isRTCEclipseExport()) {
-				return pa.getName();
+				name = pa.getName();
+			} else {
+				name = ProcessAreaUtil.getFullQualifiedName(pa, getMonitor());
 			}
-			return ProcessAreaUtil.getFullQualifiedName(pa, getMonitor());
-		}
-		if (context instanceof IAccessGroup) {
+		} else if (context instanceof IAccessGroup) {
 			IAccessGroup accessgroup = (IAccessGroup) context;
-			return accessgroup.getName();
+			name = accessgroup.getName();
 		}
-		return CONSTANT_NO_VALUE;
+		fAccessContextCache.put(uuid, name);
+		return name;
 	}
 
 	/**
@@ -591,20 +1354,10 @@ public class WorkItemExportHelper {
 		if (reference.isItemReference()) {
 			IItemHandle referencedItem = ((IItemReference) reference).getReferencedItem();
 			if (referencedItem instanceof IBuildResultHandle) {
-				IBuildResult buildResult = BuildUtil.resolveBuildResult((IBuildResultHandle) referencedItem,
-						getTeamRepository(), getMonitor());
-				if (isRTCEclipseExport()) {
-					IBuildDefinition buildDefinition = BuildUtil.resolveBuildDefinition(
-							buildResult.getBuildDefinition(), getTeamRepository(), getMonitor());
-					return buildDefinition.getId() + " " + buildResult.getLabel();
-				} else {
-					return buildResult.getLabel();
-				}
+				return getBuildLabel((IBuildResultHandle) referencedItem);
 			}
 			if (referencedItem instanceof IWorkItemHandle) {
-				IWorkItem item = WorkItemUtil.resolveWorkItem((IWorkItemHandle) referencedItem,
-						IWorkItem.SMALL_PROFILE, getWorkItemCommon(), getMonitor());
-				return getExistingWorkitemPrefix() + Integer.toString(item.getId());
+				return getExistingWorkitemPrefix() + Integer.toString(getWorkItemId((IWorkItemHandle) referencedItem));
 			}
 		}
 		throw new WorkItemCommandLineException("Unexpected reference type ItemReference expected: " + linkTypeID);
@@ -619,8 +1372,8 @@ public class WorkItemExportHelper {
 	 */
 	private String calculateStateAsString(IWorkItem workItem) throws TeamRepositoryException {
 		Identifier<IState> state = workItem.getState2();
-		IWorkflowInfo wfInfo = getWorkItemCommon().findWorkflowInfo(workItem, getMonitor());
-		String stateName = wfInfo.getStateName(state);
+		String stateName = getMetadataCache().getStateName(workItem.getWorkItemType(), workItem.getProjectArea(),
+				state);
 		if (stateName == null) {
 			return "";
 		}
@@ -634,11 +1387,11 @@ public class WorkItemExportHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateSubscriptionsAsString(IWorkItem workItem) throws TeamRepositoryException {
+	private List<String> calculateSubscriptions(IWorkItem workItem) throws TeamRepositoryException {
 		ISubscriptions subscriptions = workItem.getSubscriptions();
 		IContributorHandle[] contributors = subscriptions.getContents();
 		List<IContributorHandle> subscribers = Arrays.asList(contributors);
-		return calculateContributorListAsString(subscribers, SEPERATOR_NEWLINE);
+		return calculateContributorList(subscribers);
 	}
 
 	/**
@@ -662,11 +1415,6 @@ public class WorkItemExportHelper {
 		return CONSTANT_NO_VALUE;
 	}
 
-	private IAuditableCommon getAuditableCommon() {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
 	/**
 	 * Convert the comments data into a string containing all the comments
 	 * 
@@ -674,20 +1422,17 @@ public class WorkItemExportHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateCommentsAsString(IWorkItem workItem) throws TeamRepositoryException {
+	private List<String> calculateComments(IWorkItem workItem) throws TeamRepositoryException {
 
 		IComments comments = workItem.getComments();
 		IComment[] theComments = comments.getContents();
 		List<String> commentText = new ArrayList<String>(theComments.length);
 		int i = 1;
 		for (IComment aComment : theComments) {
-			if (i > 1) {
-				commentText.add("\r");
-			}
 			commentText.add(i + ". " + getCommentAsString(aComment));
 			i++;
 		}
-		return StringUtil.listToString(commentText, SEPERATOR_NEWLINE);
+		return commentText;
 	}
 
 	/**
@@ -717,7 +1462,7 @@ public class WorkItemExportHelper {
 	 * @param workItem
 	 * @return
 	 */
-	private String calculateApprovalsAsString(IWorkItem workItem) {
+	private List<String> calculateApprovals(IWorkItem workItem) {
 
 		IApprovals approvals = workItem.getApprovals();
 		Map<IApprovalDescriptor, Collection<IApproval>> approvalmap = WorkItemApprovals
@@ -728,7 +1473,7 @@ public class WorkItemExportHelper {
 
 			resultList.add(getApprovalAsString(approvalDescriptor, approvalmap.get(approvalDescriptor)));
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
@@ -775,20 +1520,21 @@ public class WorkItemExportHelper {
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateEnumerationLiteralListAsString(Object value, IAttribute attribute)
+	private List<String> calculateEnumerationLiteralList(Object value, IAttribute attribute)
 			throws TeamRepositoryException {
+		List<String> resultList = new ArrayList<String>();
 		if (value == null) {
-			return CONSTANT_NO_VALUE;
+			return resultList;
 		}
-		List<String> resultList = new ArrayList<String>();
 		if (!(value instanceof List<?>)) {
-			return "Result not a List type";
+			resultList.add("Result not a List type");
+			return resultList;
 		}
 		List<?> valueList = (List<?>) value;
 		for (Object object : valueList) {
 			resultList.add(calculateEnumerationLiteralAsString(object, attribute));
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
@@ -807,13 +1553,10 @@ public class WorkItemExportHelper {
 		if (!(value instanceof Identifier<?>)) {
 			return "Value not an enumeration literal";
 		}
-		IEnumeration<? extends ILiteral> enumeration = getWorkItemCommon().resolveEnumeration(attribute, getMonitor());
-
 		@SuppressWarnings("unchecked")
 		Identifier<? extends ILiteral> currentIdentifier = (Identifier<? extends ILiteral>) value;
-		ILiteral literal = enumeration.findEnumerationLiteral(currentIdentifier);
-		String name = (literal == null) ? "" : literal.getName();
-		return name;
+		String name = getMetadataCache().getLiteralName(attribute, currentIdentifier);
+		return (name == null) ? "" : name;
 	}
 
 	/**
@@ -843,7 +1586,6 @@ public class WorkItemExportHelper {
 	 * @throws TeamRepositoryException
 	 */
 	private String calculateItemAsString(Object value) throws TeamRepositoryException {
-		String prefix = "";
 		if (value == null) {
 			return CONSTANT_NO_VALUE;
 		}
@@ -851,6 +1593,25 @@ public class WorkItemExportHelper {
 			return "Value not a IItemHandle";
 		}
 		IItemHandle handle = (IItemHandle) value;
+		String cached = fItemCache.get(handle.getItemId());
+		if (cached != null) {
+			return cached;
+		}
+		String result = resolveItemAsString(handle);
+		fItemCache.put(handle.getItemId(), result);
+		return result;
+	}
+
+	/**
+	 * Compute a string representation for an IItem that is not yet cached
+	 * 
+	 * @param handle
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private String resolveItemAsString(IItemHandle handle) throws TeamRepositoryException {
+		String prefix = "";
+		Object value = handle;
 		// Resolve handle
 		IItem item = getTeamRepository().itemManager().fetchCompleteItem(handle, IItemManager.DEFAULT, getMonitor());
 		if (item instanceof IProcessArea) {
@@ -929,11 +1690,36 @@ public class WorkItemExportHelper {
 			throw new WorkItemCommandLineException("Convert process area - Incompatible Type Exception: "
 					+ value.toString());
 		}
+		IProcessAreaHandle handle = (IProcessAreaHandle) value;
+		if (asItem) {
+			// The result for items is cached with the prefix
+			return resolveProcessAreaAsString(handle, asItem);
+		}
+		String cached = fProcessAreaCache.get(handle.getItemId());
+		if (cached != null) {
+			return cached;
+		}
+		String result = resolveProcessAreaAsString(handle, asItem);
+		fProcessAreaCache.put(handle.getItemId(), result);
+		return result;
+	}
+
+	/**
+	 * Compute the string representation for a process area that is not yet
+	 * cached
+	 * 
+	 * @param handle
+	 * @param asItem
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private String resolveProcessAreaAsString(IProcessAreaHandle handle, boolean asItem)
+			throws TeamRepositoryException {
 		if (isRTCEclipseExport()) {
-			return ProcessAreaUtil.getName((IProcessAreaHandle) value, getMonitor());
+			return ProcessAreaUtil.getName(handle, getMonitor());
 		}
 		String prefix = "";
-		IProcessArea area = ProcessAreaUtil.resolveProcessArea((IProcessAreaHandle) value, getMonitor());
+		IProcessArea area = ProcessAreaUtil.resolveProcessArea(handle, getMonitor());
 		if (asItem) {
 			if (area instanceof IProjectArea) {
 				prefix = WorkItemUpdateHelper.TYPE_PROJECT_AREA + WorkItemUpdateHelper.ITEMTYPE_SEPARATOR;
@@ -965,6 +1751,20 @@ public class WorkItemExportHelper {
 		return CONSTANT_NO_VALUE;
 	}
 
+	/**
+	 * Compute the ISO 8601 representation of a timestamp in UTC, independent
+	 * of the date time format pattern, e.g. 2026-01-31T12:00:00Z
+	 * 
+	 * @param value
+	 * @return
+	 */
+	private String calculateTimestampAsISO(Object value) {
+		if (value instanceof Timestamp) {
+			return ((Timestamp) value).toInstant().toString();
+		}
+		return calculateTimestampAsString(value);
+	}
+
 	/**
 	 * Compute the string representation for a contributor/user
 	 * 
@@ -977,10 +1777,17 @@ public class WorkItemExportHelper {
 			return CONSTANT_NO_VALUE;
 		}
 		if ((value instanceof IContributorHandle)) {
-			IContributor contributor = (IContributor) getTeamRepository().itemManager().fetchCompleteItem(
-					(IContributorHandle) value, IItemManager.DEFAULT, getMonitor());
-			if (contributor != null)
+			IContributorHandle handle = (IContributorHandle) value;
+			String cached = fContributorCache.get(handle.getItemId());
+			if (cached != null) {
+				return cached;
+			}
+			IContributor contributor = (IContributor) getTeamRepository().itemManager().fetchCompleteItem(handle,
+					IItemManager.DEFAULT, getMonitor());
+			if (contributor != null) {
+				fContributorCache.put(handle.getItemId(), contributor.getUserId());
 				return contributor.getUserId();
+			}
 		}
 		throw new WorkItemCommandLineException("Convert Contributor - Incompatible Type Exception: " + value.toString());
 	}
@@ -997,7 +1804,7 @@ public class WorkItemExportHelper {
 	private String calculateIterationAsString(Object value) throws TeamRepositoryException {
 		if (value != null) {
 			if (value instanceof IIterationHandle) {
-				DevelopmentLineHelper dh = new DevelopmentLineHelper(getTeamRepository(), getMonitor());
+				DevelopmentLineHelper dh = getDevelopmentLineHelper();
 				if (isRTCEclipseExport()) {
 					// RTC Eclipose export only exports the Label of the
 					// iteration e.g. "Sprint 1"
@@ -1024,7 +1831,14 @@ public class WorkItemExportHelper {
 	private String calculateCategoryAsString(Object value) throws TeamRepositoryException {
 		if (value != null) {
 			if (value instanceof ICategoryHandle) {
-				return getWorkItemCommon().resolveHierarchicalName((ICategoryHandle) value, getMonitor());
+				ICategoryHandle handle = (ICategoryHandle) value;
+				String cached = fCategoryCache.get(handle.getItemId());
+				if (cached != null) {
+					return cached;
+				}
+				String name = getWorkItemCommon().resolveHierarchicalName(handle, getMonitor());
+				fCategoryCache.put(handle.getItemId(), name);
+				return name;
 			}
 			throw new WorkItemCommandLineException("Convert Category - Incompatible Type Exception: "
 					+ value.toString());
@@ -1042,8 +1856,14 @@ public class WorkItemExportHelper {
 	private String calculateDeliverableAsString(Object value) throws TeamRepositoryException {
 		if (value != null) {
 			if (value instanceof IDeliverableHandle) {
-				IDeliverable deliverable = (IDeliverable) getTeamRepository().itemManager().fetchCompleteItem(
-						(IDeliverableHandle) value, IItemManager.DEFAULT, getMonitor());
+				IDeliverableHandle handle = (IDeliverableHandle) value;
+				String cached = fDeliverableCache.get(handle.getItemId());
+				if (cached != null) {
+					return cached;
+				}
+				IDeliverable deliverable = (IDeliverable) getTeamRepository().itemManager().fetchCompleteItem(handle,
+						IItemManager.DEFAULT, getMonitor());
+				fDeliverableCache.put(handle.getItemId(), deliverable.getName());
 				return deliverable.getName();
 			}
 			throw new WorkItemCommandLineException("Calculate deliverable - Incompatible Type Exception: "
@@ -1117,15 +1937,13 @@ public class WorkItemExportHelper {
 	}
 
 	/**
-	 * Compute the string representation for a string list object
+	 * Compute the string representations for a string list object such as
+	 * tags
 	 * 
 	 * @param value
 	 * @return
 	 */
-	private String calculateStringListAsString(Object value) {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
+	private List<String> calculateStringList(Object value) {
 		List<String> resultList = new ArrayList<String>();
 		if (value instanceof List<?>) {
 			List<?> items = (List<?>) value;
@@ -1133,113 +1951,103 @@ public class WorkItemExportHelper {
 				resultList.add(calculateString(object));
 			}
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
-	 * Compute the string representation for a tag list
+	 * Compute the string representations for an IItem list
 	 * 
 	 * @param value
 	 * @return
+	 * @throws TeamRepositoryException
 	 */
-	private String calculateTagListAsString(Object value) {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
+	private List<String> calculateItemList(Object value) throws TeamRepositoryException {
 		List<String> resultList = new ArrayList<String>();
 		if (value instanceof List<?>) {
 			List<?> items = (List<?>) value;
 			for (Object object : items) {
-				resultList.add(calculateString(object));
+				resultList.add(calculateItemAsString(object));
 			}
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_COMMA);
+		return resultList;
 	}
 
 	/**
-	 * Compute the string representation for an IItem list
+	 * Compute the string representations for a work item list
 	 * 
 	 * @param value
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateItemListAsString(Object value) throws TeamRepositoryException {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
+	private List<String> calculateWorkItemList(Object value) throws TeamRepositoryException {
 		List<String> resultList = new ArrayList<String>();
 		if (value instanceof List<?>) {
 			List<?> items = (List<?>) value;
 			for (Object object : items) {
-				resultList.add(calculateItemAsString(object));
+				resultList.add(calculateWorkItemAsString(object));
 			}
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
-	 * Compute the string representation for a work item list
+	 * Compute the string representations for a process area list
 	 * 
 	 * @param value
+	 * @param asItem
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateWorkItemListAsString(Object value) throws TeamRepositoryException {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
+	private List<String> calculateProcessAreaList(Object value, boolean asItem) throws TeamRepositoryException {
 		List<String> resultList = new ArrayList<String>();
 		if (value instanceof List<?>) {
 			List<?> items = (List<?>) value;
 			for (Object object : items) {
-				resultList.add(calculateWorkItemAsString(object));
+				resultList.add(calculateProcessAreaAsString(object, asItem));
 			}
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
-	 * Compute the string representation for a process area list
+	 * Compute the string representations for a contributor/user list
 	 * 
 	 * @param value
-	 * @param asItem
 	 * @return
 	 * @throws TeamRepositoryException
 	 */
-	private String calculateProcessAreaListAsString(Object value, boolean asItem) throws TeamRepositoryException {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
+	private List<String> calculateContributorList(Object value) throws TeamRepositoryException {
 		List<String> resultList = new ArrayList<String>();
 		if (value instanceof List<?>) {
 			List<?> items = (List<?>) value;
 			for (Object object : items) {
-				resultList.add(calculateProcessAreaAsString(object, asItem));
+				resultList.add(calculateContributorAsString(object));
 			}
 		}
-		return StringUtil.listToString(resultList, SEPERATOR_NEWLINE);
+		return resultList;
 	}
 
 	/**
-	 * Compute the string representation for a contributor/user list
+	 * Get the hit and miss statistics of the lookup caches
 	 * 
-	 * @param value
-	 * @param seperator
-	 * @return
-	 * @throws TeamRepositoryException
+	 * @return a list with one line per cache
 	 */
-	private String calculateContributorListAsString(Object value, String seperator) throws TeamRepositoryException {
-		if (value == null) {
-			return CONSTANT_NO_VALUE;
-		}
-		List<String> resultList = new ArrayList<String>();
-		if (value instanceof List<?>) {
-			List<?> items = (List<?>) value;
-			for (Object object : items) {
-				resultList.add(calculateContributorAsString(object));
+	public List<String> getCacheStatistics() {
+		List<String> statistics = new ArrayList<String>();
+		statistics.add(fContributorCache.getStatistics());
+		statistics.add(fCategoryCache.getStatistics());
+		statistics.add(fDeliverableCache.getStatistics());
+		statistics.add(fProcessAreaCache.getStatistics());
+		statistics.add(fItemCache.getStatistics());
+		statistics.add(fWorkItemIdCache.getStatistics());
+		statistics.add(fBuildLabelCache.getStatistics());
+		statistics.add(fAccessContextCache.getStatistics());
+		if (isAttachmentsByContent()) {
+			synchronized (this) {
+				statistics.add("Attachment store: " + fReusedAttachments + " attachments already saved.");
 			}
 		}
-		return StringUtil.listToString(resultList, seperator);
+		return statistics;
 	}
 
 	/**
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.team.process.common.IProjectAreaHandle;
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.repository.common.UUID;
+import com.ibm.team.workitem.common.IWorkItemCommon;
+import com.ibm.team.workitem.common.model.IAttribute;
+import com.ibm.team.workitem.common.model.IEnumeration;
+import com.ibm.team.workitem.common.model.ILiteral;
+import com.ibm.team.workitem.common.model.IResolution;
+import com.ibm.team.workitem.common.model.IState;
+import com.ibm.team.workitem.common.model.Identifier;
+import com.ibm.team.workitem.common.workflow.IWorkflowInfo;
+
+/**
+ * Caches the process metadata needed to convert work item states, resolutions
+ * and enumeration literals into their display names.
+ * 
+ * Workflows are cached by work item type and project area, enumerations by
+ * attribute. The names are precomputed into hash maps by identifier when the
+ * workflow or enumeration is first used, to avoid a server call and a linear
+ * search per value. The cache can be shared by several threads.
+ * 
+ */
+public class WorkItemMetadataCache {
+
+	private IWorkItemCommon fWorkItemCommon;
+	private IProgressMonitor fMonitor;
+	// Workflows by work item type and project area
+	private Map<String, WorkflowNames> fWorkflows = new HashMap<String, WorkflowNames>();
+	// Enumerations by attribute
+	private Map<UUID, EnumerationNames> fEnumerations = new HashMap<UUID, EnumerationNames>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param workItemCommon
+	 * @param monitor
+	 */
+	public WorkItemMetadataCache(IWorkItemCommon workItemCommon, IProgressMonitor monitor) {
+		super();
+		this.fWorkItemCommon = workItemCommon;
+		this.fMonitor = monitor;
+	}
+
+	/**
+	 * Get the display name of a state
+	 * 
+	 * @param workItemType
+	 * @param projectArea
+	 * @param state
+	 * @return the name or null if the state is not known
+	 * @throws TeamRepositoryException
+	 */
+	public synchronized String getStateName(String workItemType, IProjectAreaHandle projectArea,
+			Identifier<IState> state) throws TeamRepositoryException {
+		if (state == null) {
+			return null;
+		}
+		return getWorkflow(workItemType, projectArea).getStateName(state);
+	}
+
+	/**
+	 * Get the display name of a resolution
+	 * 
+	 * @param workItemType
+	 * @param projectArea
+	 * @param resolution
+	 * @return the name or null if the resolution is not known
+	 * @throws TeamRepositoryException
+	 */
+	public synchronized String getResolutionName(String workItemType, IProjectAreaHandle projectArea,
+			Identifier<IResolution> resolution) throws TeamRepositoryException {
+		if (resolution == null) {
+			return null;
+		}
+		return getWorkflow(workItemType, projectArea).getResolutionName(resolution);
+	}
+
+	/**
+	 * Get the display name of an enumeration literal
+	 * 
+	 * @param attribute
+	 * @param literal
+	 * @return the name or null if the literal is not known
+	 * @throws TeamRepositoryException
+	 */
+	public synchronized String getLiteralName(IAttribute attribute, Identifier<? extends ILiteral> literal)
+			throws TeamRepositoryException {
+		if (literal == null) {
+			return null;
+		}
+		EnumerationNames names = fEnumerations.get(attribute.getItemId());
+		if (names == null) {
+			names = new EnumerationNames(fWorkItemCommon.resolveEnumeration(attribute, fMonitor));
+			fEnumerations.put(attribute.getItemId(), names);
+		}
+		return names.getName(literal);
+	}
+
+	/**
+	 * Get the cached workflow names for a work item type in a project area
+	 * 
+	 * @param workItemType
+	 * @param projectArea
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	private WorkflowNames getWorkflow(String workItemType, IProjectAreaHandle projectArea)
+			throws TeamRepositoryException {
+		String key = workItemType + "/" + projectArea.getItemId().getUuidValue();
+		WorkflowNames names = fWorkflows.get(key);
+		if (names == null) {
+			names = new WorkflowNames(fWorkItemCommon.getWorkflow(workItemType, projectArea, fMonitor));
+			fWorkflows.put(key, names);
+		}
+		return names;
+	}
+
+	/**
+	 * The state and resolution names of one workflow
+	 * 
+	 */
+	private static class WorkflowNames {
+		private IWorkflowInfo fWorkflowInfo;
+		private Map<String, String> fStateNames = new HashMap<String, String>();
+		private Map<String, String> fResolutionNames = new HashMap<String, String>();
+
+		WorkflowNames(IWorkflowInfo workflowInfo) {
+			this.fWorkflowInfo = workflowInfo;
+			for (Identifier<IState> state : workflowInfo.getAllStateIds()) {
+				fStateNames.put(state.getStringIdentifier(), workflowInfo.getStateName(state));
+			}
+			for (Identifier<IResolution> resolution : workflowInfo.getAllResolutionIds()) {
+				fResolutionNames.put(resolution.getStringIdentifier(), workflowInfo.getResolutionName(resolution));
+			}
+		}
+
+		String getStateName(Identifier<IState> state) {
+			String id = state.getStringIdentifier();
+			if (!fStateNames.containsKey(id)) {
+				// Not part of the workflow, e.g. a legacy state
+				fStateNames.put(id, fWorkflowInfo.getStateName(state));
+			}
+			return fStateNames.get(id);
+		}
+
+		String getResolutionName(Identifier<IResolution> resolution) {
+			String id = resolution.getStringIdentifier();
+			if (!fResolutionNames.containsKey(id)) {
+				fResolutionNames.put(id, fWorkflowInfo.getResolutionName(resolution));
+			}
+			return fResolutionNames.get(id);
+		}
+	}
+
+	/**
+	 * The literal names of one enumeration
+	 * 
+	 */
+	private static class EnumerationNames {
+		private IEnumeration<? extends ILiteral> fEnumeration;
+		private Map<String, String> fLiteralNames = new HashMap<String, String>();
+
+		EnumerationNames(IEnumeration<? extends ILiteral> enumeration) {
+			this.fEnumeration = enumeration;
+			for (ILiteral literal : enumeration.getEnumerationLiterals()) {
+				fLiteralNames.put(literal.getIdentifier2().getStringIdentifier(), literal.getName());
+			}
+		}
+
+		String getName(Identifier<? extends ILiteral> identifier) {
+			String id = identifier.getStringIdentifier();
+			if (!fLiteralNames.containsKey(id)) {
+				// Not in the list, e.g. an archived literal
+				ILiteral literal = fEnumeration.findEnumerationLiteral(identifier);
+				fLiteralNames.put(id, (literal == null) ? null : literal.getName());
+			}
+			return fLiteralNames.get(id);
+		}
+	}
+}
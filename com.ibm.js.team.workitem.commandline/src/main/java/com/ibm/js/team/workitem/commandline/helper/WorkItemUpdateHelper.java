@@ -8,9 +8,9 @@
 package com.ibm.js.team.workitem.commandline.helper;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -30,9 +30,11 @@ import com.ibm.js.team.workitem.commandline.framework.ParameterValue;
 import com.ibm.js.team.workitem.commandline.framework.ReferenceData;
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
 import com.ibm.js.team.workitem.commandline.parameter.ParameterList;
-import com.ibm.js.team.workitem.commandline.utils.AccessContextUtil;
+import com.ibm.js.team.workitem.commandline.utils.AccessContextIndex;
+import com.ibm.js.team.workitem.commandline.utils.AttachmentArchive;
 import com.ibm.js.team.workitem.commandline.utils.AttachmentUtil;
 import com.ibm.js.team.workitem.commandline.utils.BuildUtil;
+import com.ibm.js.team.workitem.commandline.utils.ContributorIndex;
 import com.ibm.js.team.workitem.commandline.utils.ProcessAreaUtil;
 import com.ibm.js.team.workitem.commandline.utils.ReferenceUtil;
 import com.ibm.js.team.workitem.commandline.utils.SimpleDateFormatUtil;
@@ -58,7 +60,6 @@ import com.ibm.team.repository.common.IContent;
 import com.ibm.team.repository.common.IContributor;
 import com.ibm.team.repository.common.IContributorHandle;
 import com.ibm.team.repository.common.IItemHandle;
-import com.ibm.team.repository.common.ItemNotFoundException;
 import com.ibm.team.repository.common.Location;
 import com.ibm.team.repository.common.TeamRepositoryException;
 import com.ibm.team.repository.common.UUID;
@@ -169,6 +170,12 @@ public class WorkItemUpdateHelper {
 	private boolean fBulkupdate = false;
 	private boolean fupdateBacklinks = false;
 	private boolean fImportIgnoreMissingAttributes = false;
+	// The index of the access contexts shared by the run of the command
+	private AccessContextIndex fAccessContextIndex = null;
+	// The index of the contributors shared by the run of the command
+	private ContributorIndex fContributorIndex = null;
+	// The values found for the work items of the run of the command
+	private ValueResolutionCache fValueCache = null;
 
 	/**
 	 * Internal class to parse and manage approval data.
@@ -1318,7 +1325,13 @@ public class WorkItemUpdateHelper {
 	 * @throws TeamRepositoryException
 	 */
 	private Object calculateCategory(ParameterValue parameter) throws TeamRepositoryException {
-		ICategoryHandle category = findCategory(parameter.getValue());
+		String key = ValueResolutionCache.getKey(getWorkItem().getProjectArea(),
+				parameter.getIAttribute().getIdentifier(), parameter.getValue());
+		ICategoryHandle category = getValueCache().getCategories().get(key);
+		if (category == null) {
+			category = findCategory(parameter.getValue());
+			getValueCache().getCategories().put(key, category);
+		}
 		if (category == null) {
 			throw new WorkItemCommandLineException("Category not found: '" + parameter.getIAttribute().getIdentifier()
 					+ "' Value: '" + parameter.getValue() + "'.");
@@ -1416,7 +1429,13 @@ public class WorkItemUpdateHelper {
 		if (StringUtil.isEmpty(parameter.getValue())) {
 			return null; // Unassigned
 		}
-		IDeliverable result = findDeliverable(parameter.getValue());
+		String key = ValueResolutionCache.getKey(getWorkItem().getProjectArea(),
+				parameter.getIAttribute().getIdentifier(), parameter.getValue());
+		IDeliverable result = getValueCache().getDeliverables().get(key);
+		if (result == null) {
+			result = findDeliverable(parameter.getValue());
+			getValueCache().getDeliverables().put(key, result);
+		}
 		if (null == result) {
 			throw new WorkItemCommandLineException("Deliverable not found: '"
 					+ parameter.getIAttribute().getIdentifier() + "' Value: '" + parameter.getValue() + "'.");
@@ -1683,12 +1702,18 @@ public class WorkItemUpdateHelper {
 		if (StringUtil.isEmpty(parameter.getValue())) {
 			return null; // Unassigned
 		}
-		List<String> path = StringUtil.splitStringToList(parameter.getValue(), PATH_SEPARATOR);
-		DevelopmentLineHelper dh = new DevelopmentLineHelper(getTeamRepository(), monitor);
 		IProjectAreaHandle projectArea = getWorkItem().getProjectArea();
-		IIteration iteration = dh.findIteration(projectArea, path, DevelopmentLineHelper.BYID);
-		if (iteration == null) { // find by label if find by ID fails
-			iteration = dh.findIteration(projectArea, path, DevelopmentLineHelper.BYLABEL);
+		String key = ValueResolutionCache.getKey(projectArea, parameter.getIAttribute().getIdentifier(),
+				parameter.getValue());
+		IIteration iteration = getValueCache().getIterations().get(key);
+		if (iteration == null) {
+			List<String> path = StringUtil.splitStringToList(parameter.getValue(), PATH_SEPARATOR);
+			DevelopmentLineHelper dh = new DevelopmentLineHelper(getTeamRepository(), monitor);
+			iteration = dh.findIteration(projectArea, path, DevelopmentLineHelper.BYID);
+			if (iteration == null) { // find by label if find by ID fails
+				iteration = dh.findIteration(projectArea, path, DevelopmentLineHelper.BYLABEL);
+			}
+			getValueCache().getIterations().put(key, iteration);
 		}
 		if (iteration == null) {
 			throw new WorkItemCommandLineException("Iteration not found: '" + parameter.getIAttribute().getIdentifier()
@@ -2007,8 +2032,7 @@ public class WorkItemUpdateHelper {
 	 */
 	private UUID calculateUUID(ParameterValue parameter, List<Exception> exceptions) throws TeamRepositoryException {
 		// can not be null
-		UUID accessContext = AccessContextUtil.getAccessContextFromFQN(parameter.getValue(), getTeamRepository(),
-				getAuditableCommon(), getProcessClientService(), null);
+		UUID accessContext = getAccessContextIndex().getAccessContextFromFQN(parameter.getValue(), null);
 		if (accessContext == null) {
 			throw new WorkItemCommandLineException("UUID not found: '" + parameter.getIAttribute().getIdentifier()
 					+ "' Value: '" + parameter.getValue() + "'.");
@@ -2272,27 +2296,13 @@ public class WorkItemUpdateHelper {
 	 * @return the contributor object or null if the user ID could not be found
 	 * @throws TeamRepositoryException
 	 */
-	@SuppressWarnings("rawtypes")
 	private IContributor findContributorFromIDorName(final String userID) throws TeamRepositoryException {
 		String userTrimmed = userID.trim();
-		IContributor foundUser = null;
 		if (userTrimmed.isEmpty()) {
 			userTrimmed = IWorkItemCommandLineConstants.UNASSIGNED_USER;
 		}
-		try {
-			foundUser = getTeamRepository().contributorManager().fetchContributorByUserId(userTrimmed, monitor);
-		} catch (ItemNotFoundException e) {
-			// Try to find by name
-			List allContributors = getTeamRepository().contributorManager().fetchAllContributors(monitor);
-			for (Iterator iterator = allContributors.iterator(); iterator.hasNext();) {
-				IContributor contributor = (IContributor) iterator.next();
-				if (contributor.getName().equals(userTrimmed)) {
-					foundUser = contributor;
-					break;
-				}
-			}
-		}
-		return foundUser;
+		// The index is shared by all rows of an import or bulk update
+		return getContributorIndex().findContributorByIDorName(userTrimmed, monitor);
 	}
 
 	/**
@@ -2779,6 +2789,67 @@ public class WorkItemUpdateHelper {
 		return fTeamRepository;
 	}
 
+	/**
+	 * Set the cache for values to share it with the other work items updated
+	 * by the command
+	 * 
+	 * @param valueCache
+	 */
+	public void setValueCache(ValueResolutionCache valueCache) {
+		this.fValueCache = valueCache;
+	}
+
+	/**
+	 * @return the cache for values shared by all work items that are updated,
+	 *         a new one if none was set
+	 */
+	private ValueResolutionCache getValueCache() {
+		if (fValueCache == null) {
+			fValueCache = new ValueResolutionCache();
+		}
+		return fValueCache;
+	}
+
+	/**
+	 * Set the index of the access contexts to share it with the other work
+	 * items updated by the command
+	 * 
+	 * @param accessContextIndex
+	 */
+	public void setAccessContextIndex(AccessContextIndex accessContextIndex) {
+		this.fAccessContextIndex = accessContextIndex;
+	}
+
+	/**
+	 * @return the index of the access contexts, a new one if none was set
+	 */
+	private AccessContextIndex getAccessContextIndex() {
+		if (fAccessContextIndex == null) {
+			fAccessContextIndex = new AccessContextIndex(getTeamRepository());
+		}
+		return fAccessContextIndex;
+	}
+
+	/**
+	 * Set the index of the contributors to share it with the other work items
+	 * updated by the command
+	 * 
+	 * @param contributorIndex
+	 */
+	public void setContributorIndex(ContributorIndex contributorIndex) {
+		this.fContributorIndex = contributorIndex;
+	}
+
+	/**
+	 * @return the index of the contributors, a new one if none was set
+	 */
+	private ContributorIndex getContributorIndex() {
+		if (fContributorIndex == null) {
+			fContributorIndex = new ContributorIndex(getTeamRepository());
+		}
+		return fContributorIndex;
+	}
+
 	/**
 	 * @return the IWorkItemCommon client library
 	 */
@@ -2903,7 +2974,12 @@ public class WorkItemUpdateHelper {
 	 */
 	private Identifier<? extends ILiteral> getEnumerationLiteralEqualsStringOrID(IAttributeHandle attributeHandle,
 			String literalName) throws TeamRepositoryException {
-		Identifier<? extends ILiteral> literalID = null;
+		String key = ValueResolutionCache.getKey(getWorkItem().getProjectArea(),
+				attributeHandle.getItemId().getUuidValue(), literalName.trim());
+		Identifier<? extends ILiteral> literalID = getValueCache().getLiterals().get(key);
+		if (literalID != null) {
+			return literalID;
+		}
 		IEnumeration<? extends ILiteral> enumeration = getWorkItemCommon().resolveEnumeration(attributeHandle, monitor);
 
 		List<? extends ILiteral> literals = enumeration.getEnumerationLiterals();
@@ -2918,6 +2994,7 @@ public class WorkItemUpdateHelper {
 				break;
 			}
 		}
+		getValueCache().getLiterals().put(key, literalID);
 		return literalID;
 	}
 
@@ -2968,9 +3045,10 @@ public class WorkItemUpdateHelper {
 			throws TeamRepositoryException {
 
 		File attachmentFile = new File(fileName);
-		FileInputStream fis;
+		InputStream fis;
 		try {
-			fis = new FileInputStream(attachmentFile);
+			// The file can also be in an attachment archive
+			fis = AttachmentArchive.openFile(attachmentFile);
 			try {
 				IAttachment newAttachment = getWorkItemClient().createAttachment(getWorkItem().getProjectArea(),
 						attachmentFile.getName(), description, contentType, encoding, fis, monitor);
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.team.process.client.IProcessClientService;
+import com.ibm.team.process.common.IAccessGroup;
+import com.ibm.team.process.common.IProcessArea;
+import com.ibm.team.process.common.IProjectArea;
+import com.ibm.team.process.common.ITeamArea;
+import com.ibm.team.repository.client.IItemManager;
+import com.ibm.team.repository.client.ITeamRepository;
+import com.ibm.team.repository.common.IContext;
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.repository.common.UUID;
+import com.ibm.team.workitem.common.IAuditableCommon;
+
+/**
+ * An index of the access contexts of a repository used for the restricted
+ * access attribute. The project areas, team areas and access groups are read
+ * once, when the index is used for the first time, and mapped by UUID.
+ * Contexts that are not in the index, e.g. archived project areas, are looked
+ * up with AccessContextUtil and remembered. Names are mapped to contexts the
+ * same way. Values that are not found are looked up again, the context could
+ * be created later.
+ * 
+ * An index is created for one run of a command and shared by all its
+ * threads, so that the next run sees the contexts changed in between.
+ * 
+ */
+public class AccessContextIndex {
+
+	private ITeamRepository fTeamRepository;
+	// Project areas, team areas and access groups by UUID, null until read
+	private Map<UUID, Object> fContexts = null;
+	// Context UUIDs by process area name or access group name
+	private Map<String, UUID> fContextsByName = new HashMap<String, UUID>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param teamRepository
+	 */
+	public AccessContextIndex(ITeamRepository teamRepository) {
+		super();
+		this.fTeamRepository = teamRepository;
+	}
+
+	/**
+	 * Get the access context for a value of the restricted access attribute
+	 * 
+	 * @param uuid
+	 * @param monitor
+	 * @return An UUID for public access, a IProjectArea, a ITeamArea, a
+	 *         IAccessGroup or null
+	 */
+	public synchronized Object getAccessContext(UUID uuid, IProgressMonitor monitor) {
+		if (uuid == null) {
+			return null;
+		}
+		if (IContext.PUBLIC.equals(uuid)) {
+			return uuid;
+		}
+		Map<UUID, Object> contexts = getContexts(monitor);
+		Object context = contexts.get(uuid);
+		if (context == null) {
+			context = AccessContextUtil.getAccessContextFromUUID(uuid, fTeamRepository, getAuditableCommon(),
+					monitor);
+			if (context != null) {
+				contexts.put(uuid, context);
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Get the UUID of an access context from a process area or access group
+	 * name
+	 * 
+	 * @param value
+	 *            - the full qualified name of a process area, the name of an
+	 *            access group or Public
+	 * @param monitor
+	 * @return the UUID or null if there is no such context
+	 */
+	public synchronized UUID getAccessContextFromFQN(String value, IProgressMonitor monitor) {
+		if (value == null) {
+			return null;
+		}
+		if (value.equals(AccessContextUtil.PUBLIC_ACCESS)) {
+			return IContext.PUBLIC;
+		}
+		UUID context = fContextsByName.get(value);
+		if (context == null) {
+			context = findAccessContext(value, monitor);
+			if (context != null) {
+				fContextsByName.put(value, context);
+			}
+		}
+		return context;
+	}
+
+	/**
+	 * Find the context for a name, process areas first
+	 * 
+	 * @param value
+	 * @param monitor
+	 * @return
+	 */
+	private UUID findAccessContext(String value, IProgressMonitor monitor) {
+		try {
+			IProcessArea processArea = ProcessAreaUtil.findProcessAreaByFQN(value, getProcessClientService(),
+					monitor);
+			if (processArea != null) {
+				return processArea.getContextId();
+			}
+		} catch (TeamRepositoryException e) {
+			// Catch unwanted exceptions thrown by the API
+		}
+		for (Object context : getContexts(monitor).values()) {
+			if (context instanceof IAccessGroup && ((IAccessGroup) context).getName().equals(value)) {
+				// Use the contextID and not the uuid value.
+				return ((IAccessGroup) context).getContextId();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Read the project areas, their team areas and the access groups
+	 * 
+	 * @param monitor
+	 * @return
+	 */
+	private Map<UUID, Object> getContexts(IProgressMonitor monitor) {
+		if (fContexts != null) {
+			return fContexts;
+		}
+		fContexts = new HashMap<UUID, Object>();
+		try {
+			@SuppressWarnings("rawtypes")
+			List projectAreas = getProcessClientService().findAllProjectAreas(IProcessClientService.ALL_PROPERTIES,
+					monitor);
+			for (Object area : projectAreas) {
+				IProjectArea projectArea = (IProjectArea) area;
+				fContexts.put(projectArea.getItemId(), projectArea);
+				@SuppressWarnings("rawtypes")
+				List teamAreas = fTeamRepository.itemManager().fetchCompleteItems(projectArea.getTeamAreas(),
+						IItemManager.DEFAULT, monitor);
+				for (Object teamArea : teamAreas) {
+					if (teamArea instanceof ITeamArea) {
+						fContexts.put(((ITeamArea) teamArea).getItemId(), teamArea);
+					}
+				}
+			}
+		} catch (TeamRepositoryException e) {
+			// The missing areas are looked up one by one
+		}
+		try {
+			for (IAccessGroup group : getAuditableCommon().getAccessGroups(null, Integer.MAX_VALUE, monitor)) {
+				// Map the contextID and not the uuid value.
+				fContexts.put(group.getContextId(), group);
+			}
+		} catch (TeamRepositoryException e) {
+			// The missing groups are looked up one by one
+		}
+		return fContexts;
+	}
+
+	private IAuditableCommon getAuditableCommon() {
+		return (IAuditableCommon) fTeamRepository.getClientLibrary(IAuditableCommon.class);
+	}
+
+	private IProcessClientService getProcessClientService() {
+		return (IProcessClientService) fTeamRepository.getClientLibrary(IProcessClientService.class);
+	}
+}
@@ -56,7 +56,7 @@ public class AccessContextUtil {
 		}
 		try {
 			ITeamArea area = ProcessAreaUtil.getTeamAreaFormUUID(uuid, teamRepository, monitor);
-			return area.getName();
+			return area;
 		} catch (Exception e) {
 			// Catch unwanted exceptions thrown by the API
 		}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.workitem.common.model.IAttachment;
+
+/**
+ * Stores attachments in one ZIP archive instead of one file per attachment.
+ * The archive for the folder <code>attachments</code> is
+ * <code>attachments.zip</code> next to the folder. The entries have the path
+ * the file would have relative to the parent of the folder, e.g.
+ * <code>attachments/123/file.txt</code>, so the paths written to the export
+ * file do not change.
+ * 
+ * When importing, {@link #openFile(File)} reads a file that does not exist
+ * from the archive of one of its parent folders.
+ * 
+ */
+public class AttachmentArchive implements Closeable {
+
+	public static final String FILE_EXTENSION = ".zip";
+
+	// Archives opened to read attachments, by archive file
+	private static Map<String, ZipFile> fOpenArchives = new HashMap<String, ZipFile>();
+
+	private File fFile;
+	private ZipOutputStream fOut;
+	// The entries written to the archive
+	private Set<String> fEntries = new HashSet<String>();
+	// The entries that are downloaded and not yet written
+	private Set<String> fEntriesInProgress = new HashSet<String>();
+
+	/**
+	 * Create a new archive, an existing archive is replaced
+	 * 
+	 * @param folder
+	 *            - the folder the archive replaces
+	 * @throws WorkItemCommandLineException
+	 */
+	public AttachmentArchive(File folder) throws WorkItemCommandLineException {
+		super();
+		this.fFile = getFile(folder);
+		try {
+			this.fOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(fFile)));
+		} catch (FileNotFoundException e) {
+			throw new WorkItemCommandLineException("Exception creating attachment archive: " + fFile, e);
+		}
+	}
+
+	/**
+	 * Get the archive file for a folder
+	 * 
+	 * @param folder
+	 * @return
+	 */
+	public static File getFile(File folder) {
+		return new File(folder.getAbsolutePath() + FILE_EXTENSION);
+	}
+
+	/**
+	 * Add an attachment to the archive. The content is retrieved into a
+	 * temporary file first, so that a failed download can be retried and
+	 * several threads can download while one of them writes to the archive.
+	 * 
+	 * An entry that is written or downloaded by another thread is skipped. If
+	 * the download fails, the entry can be added again later.
+	 * 
+	 * @param attachment
+	 * @param entryName
+	 *            - the path of the file in the archive
+	 * @param monitor
+	 * @return true if the entry was added, false if it was skipped
+	 * @throws TeamRepositoryException
+	 */
+	public boolean add(IAttachment attachment, String entryName, IProgressMonitor monitor)
+			throws TeamRepositoryException {
+		if (!startEntry(entryName)) {
+			return false;
+		}
+		boolean added = false;
+		File temp = null;
+		try {
+			temp = File.createTempFile("attachment", null);
+			AttachmentUtil.saveAttachmentToFile(attachment, temp, monitor);
+			addEntry(entryName, temp);
+			added = true;
+		} catch (IOException e) {
+			throw new WorkItemCommandLineException("Exception adding attachment to archive: " + entryName, e);
+		} finally {
+			if (temp != null) {
+				temp.delete();
+			}
+			if (!added) {
+				endEntry(entryName);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Mark an entry as in progress
+	 * 
+	 * @param entryName
+	 * @return false if the entry is written or in progress
+	 */
+	private synchronized boolean startEntry(String entryName) {
+		if (fEntries.contains(entryName)) {
+			return false;
+		}
+		return fEntriesInProgress.add(entryName);
+	}
+
+	/**
+	 * Forget an entry that could not be written
+	 * 
+	 * @param entryName
+	 */
+	private synchronized void endEntry(String entryName) {
+		fEntriesInProgress.remove(entryName);
+	}
+
+	private synchronized void addEntry(String entryName, File file) throws IOException {
+		fOut.putNextEntry(new ZipEntry(entryName));
+		Files.copy(file.toPath(), fOut);
+		fOut.closeEntry();
+		fEntriesInProgress.remove(entryName);
+		fEntries.add(entryName);
+	}
+
+	/**
+	 * Write the central directory and close the archive
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		fOut.close();
+	}
+
+	/**
+	 * @return the number of files in the archive
+	 */
+	public synchronized int getSize() {
+		return fEntries.size();
+	}
+
+	/**
+	 * Open a file to read it. If the file does not exist, the file is read
+	 * from the archive of the first parent folder that has an archive
+	 * containing it.
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static InputStream openFile(File file) throws IOException {
+		if (file.exists()) {
+			return new FileInputStream(file);
+		}
+		File absolute = file.getAbsoluteFile().toPath().normalize().toFile();
+		String entryName = absolute.getName();
+		File folder = absolute.getParentFile();
+		while (folder != null) {
+			entryName = folder.getName() + "/" + entryName;
+			File archive = getFile(folder);
+			if (archive.isFile()) {
+				ZipFile zipFile = getArchive(archive);
+				ZipEntry entry = zipFile.getEntry(entryName);
+				if (entry != null) {
+					return zipFile.getInputStream(entry);
+				}
+			}
+			folder = folder.getParentFile();
+		}
+		throw new FileNotFoundException(file.getPath());
+	}
+
+	/**
+	 * Get an archive to read from, the archive is kept open until
+	 * {@link #closeArchives()} is called.
+	 * 
+	 * @param archive
+	 * @return
+	 * @throws IOException
+	 */
+	private static synchronized ZipFile getArchive(File archive) throws IOException {
+		ZipFile zipFile = fOpenArchives.get(archive.getPath());
+		if (zipFile == null) {
+			zipFile = new ZipFile(archive);
+			fOpenArchives.put(archive.getPath(), zipFile);
+		}
+		return zipFile;
+	}
+
+	/**
+	 * Close the archives opened to read files
+	 */
+	public static synchronized void closeArchives() {
+		for (ZipFile zipFile : fOpenArchives.values()) {
+			try {
+				zipFile.close();
+			} catch (IOException e) {
+				// Only read from, nothing is lost
+			}
+		}
+		fOpenArchives.clear();
+	}
+}
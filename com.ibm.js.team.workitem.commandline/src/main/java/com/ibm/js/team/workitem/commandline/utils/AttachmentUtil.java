@@ -42,8 +42,23 @@ public class AttachmentUtil {
 	 */
 	public static List<IAttachment> saveAttachmentsToDisk(File folder, IWorkItem workItem,
 			IWorkItemCommon workItemCommon, IProgressMonitor monitor) throws TeamRepositoryException {
-		List<IAttachment> resultList = new ArrayList<IAttachment>();
 		List<IAttachment> allAttachments = AttachmentUtil.findAttachments(workItem, workItemCommon, monitor);
+		return saveAttachmentsToDisk(folder, allAttachments, monitor);
+	}
+
+	/**
+	 * Save a list of attachments to disk
+	 * 
+	 * @param folder
+	 *            - the folder to save to
+	 * @param allAttachments
+	 *            - the attachments to save
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IAttachment> saveAttachmentsToDisk(File folder, List<IAttachment> allAttachments,
+			IProgressMonitor monitor) throws TeamRepositoryException {
+		List<IAttachment> resultList = new ArrayList<IAttachment>();
 		if (allAttachments.isEmpty()) {
 			return resultList;
 		}
@@ -65,10 +80,23 @@ public class AttachmentUtil {
 	 */
 	public static IAttachment saveAttachmentToDisk(IAttachment attachment, File folder, IProgressMonitor monitor)
 			throws TeamRepositoryException {
-		String attachmentFileName = folder.getAbsolutePath() + File.separator + attachment.getName();
+		return saveAttachmentToFile(attachment, new File(folder, attachment.getName()), monitor);
+	}
+
+	/**
+	 * Saves the content of one attachment into a file
+	 * 
+	 * @param attachment
+	 *            - the attachment to save
+	 * @param save
+	 *            - the file to save into
+	 * @throws TeamRepositoryException
+	 */
+	public static IAttachment saveAttachmentToFile(IAttachment attachment, File save, IProgressMonitor monitor)
+			throws TeamRepositoryException {
+		String attachmentFileName = save.getAbsolutePath();
 		try {
 			int retry = 0;
-			File save = new File(attachmentFileName);
 
 			OutputStream out;
 			while (true) {
@@ -93,6 +121,21 @@ public class AttachmentUtil {
 		}
 	}
 
+	/**
+	 * Check if an attachment is already saved in a folder. The file must exist
+	 * and have the size of the attachment content.
+	 * 
+	 * @param attachment
+	 *            - the attachment
+	 * @param folder
+	 *            - the folder the attachment is saved into
+	 * @return true if the file of the attachment exists with the same size
+	 */
+	public static boolean isSavedToDisk(IAttachment attachment, File folder) {
+		File saved = new File(folder, attachment.getName());
+		return saved.isFile() && saved.length() == attachment.getContent().getRawLength();
+	}
+
 	/**
 	 * Finds all attachments of a workitem
 	 * 
@@ -101,7 +144,6 @@ public class AttachmentUtil {
 	 */
 	public static List<IAttachment> findAttachments(IWorkItem workItem, IWorkItemCommon workItemCommon,
 			IProgressMonitor monitor) throws TeamRepositoryException {
-		List<IAttachment> foundAttachments = new ArrayList<IAttachment>();
 		// get all the references
 		int retry = 0;
 		IWorkItemReferences references = null;
@@ -115,6 +157,19 @@ public class AttachmentUtil {
 				System.out.println("Retry (" + retry + ") find attachments for: " + workItem.getId());
 			}
 		}
+		return findAttachments(references, workItemCommon, monitor);
+	}
+
+	/**
+	 * Finds all attachments in the already resolved references of a work item
+	 * 
+	 * @return - a list of the attachments
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IAttachment> findAttachments(IWorkItemReferences references, IWorkItemCommon workItemCommon,
+			IProgressMonitor monitor) throws TeamRepositoryException {
+		List<IAttachment> foundAttachments = new ArrayList<IAttachment>();
+		int retry = 0;
 		// narrow down to the attachments
 		List<IReference> attachments = references.getReferences(WorkItemEndPoints.ATTACHMENT);
 		for (IReference aReference : attachments) {
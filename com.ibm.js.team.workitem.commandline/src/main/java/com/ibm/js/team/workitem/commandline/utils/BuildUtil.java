@@ -108,6 +108,52 @@ public class BuildUtil {
 		throw new WorkItemCommandLineException("Build Result not found " + buildResult.getItemId());
 	}
 
+	/**
+	 * Resolve several build results in one server round trip. Build results
+	 * that are not found or not accessible are not returned.
+	 * 
+	 * @param buildResults
+	 * @param teamRepository
+	 * @param monitor
+	 * @return the build results that were found
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IBuildResult> resolveBuildResults(List<IBuildResultHandle> buildResults,
+			ITeamRepository teamRepository, IProgressMonitor monitor) throws TeamRepositoryException {
+		List<IBuildResult> resolved = new ArrayList<IBuildResult>(buildResults.size());
+		IFetchResult fetchResult = teamRepository.itemManager().fetchCompleteItemsPermissionAware(buildResults,
+				IItemManager.REFRESH, monitor);
+		for (Object result : fetchResult.getRetrievedItems()) {
+			if (result instanceof IBuildResult) {
+				resolved.add((IBuildResult) result);
+			}
+		}
+		return resolved;
+	}
+
+	/**
+	 * Resolve several build definitions in one server round trip. Build
+	 * definitions that are not found or not accessible are not returned.
+	 * 
+	 * @param buildDefinitions
+	 * @param teamRepository
+	 * @param monitor
+	 * @return the build definitions that were found
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IBuildDefinition> resolveBuildDefinitions(List<IBuildDefinitionHandle> buildDefinitions,
+			ITeamRepository teamRepository, IProgressMonitor monitor) throws TeamRepositoryException {
+		List<IBuildDefinition> resolved = new ArrayList<IBuildDefinition>(buildDefinitions.size());
+		IFetchResult fetchResult = teamRepository.itemManager().fetchCompleteItemsPermissionAware(buildDefinitions,
+				IItemManager.REFRESH, monitor);
+		for (Object result : fetchResult.getRetrievedItems()) {
+			if (result instanceof IBuildDefinition) {
+				resolved.add((IBuildDefinition) result);
+			}
+		}
+		return resolved;
+	}
+
 	/**
 	 * Resolve a build definition from an handle
 	 * 
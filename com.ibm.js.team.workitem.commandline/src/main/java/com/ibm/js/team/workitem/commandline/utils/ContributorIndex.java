@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.utils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.team.repository.client.ITeamRepository;
+import com.ibm.team.repository.common.IContributor;
+import com.ibm.team.repository.common.ItemNotFoundException;
+import com.ibm.team.repository.common.TeamRepositoryException;
+
+/**
+ * An index of the contributors of a repository to find contributors by user
+ * ID or by name. Contributors found by user ID are remembered. The first time
+ * a value is not a user ID, all contributors are read once and mapped by user
+ * ID and by name, instead of reading all contributors for each name. Values
+ * that are neither are remembered as unknown.
+ * 
+ * An index is created for one run of a command and shared by all its threads
+ * and rows, so that the next run sees the contributors changed in between.
+ * The server is called without holding the lock of the index.
+ * 
+ */
+public class ContributorIndex {
+
+	private ITeamRepository fTeamRepository;
+	// Contributors by user ID
+	private Map<String, IContributor> fContributorsByUserId = new HashMap<String, IContributor>();
+	// Contributors by name, null until all contributors are read
+	private Map<String, IContributor> fContributorsByName = null;
+	// Values that are neither a user ID nor a name
+	private Set<String> fUnknown = new HashSet<String>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param teamRepository
+	 */
+	public ContributorIndex(ITeamRepository teamRepository) {
+		super();
+		this.fTeamRepository = teamRepository;
+	}
+
+	/**
+	 * Find a contributor by user ID or, if there is no such user ID, by name
+	 * 
+	 * @param value
+	 *            - the user ID or the name
+	 * @param monitor
+	 * @return the contributor or null if it could not be found
+	 * @throws TeamRepositoryException
+	 */
+	public IContributor findContributorByIDorName(String value, IProgressMonitor monitor)
+			throws TeamRepositoryException {
+		boolean contributorsRead;
+		synchronized (this) {
+			IContributor contributor = fContributorsByUserId.get(value);
+			if (contributor != null) {
+				return contributor;
+			}
+			if (fUnknown.contains(value)) {
+				return null;
+			}
+			contributorsRead = fContributorsByName != null;
+			if (contributorsRead) {
+				contributor = fContributorsByName.get(value);
+				if (contributor != null) {
+					return contributor;
+				}
+			}
+		}
+		// Ask the server, the contributor could have been created after the
+		// index was read
+		try {
+			IContributor contributor = fTeamRepository.contributorManager().fetchContributorByUserId(value,
+					monitor);
+			synchronized (this) {
+				fContributorsByUserId.put(value, contributor);
+			}
+			return contributor;
+		} catch (ItemNotFoundException e) {
+			// Try to find by name
+		}
+		if (!contributorsRead) {
+			IContributor contributor = readContributors(monitor).get(value);
+			if (contributor != null) {
+				return contributor;
+			}
+		}
+		synchronized (this) {
+			fUnknown.add(value);
+		}
+		return null;
+	}
+
+	/**
+	 * Read all contributors and map them by user ID and by name. If several
+	 * contributors have the same name, the first one is used. If another
+	 * thread read them at the same time, its result is kept.
+	 * 
+	 * @param monitor
+	 * @return the contributors by name
+	 * @throws TeamRepositoryException
+	 */
+	private Map<String, IContributor> readContributors(IProgressMonitor monitor) throws TeamRepositoryException {
+		@SuppressWarnings("rawtypes")
+		List allContributors = fTeamRepository.contributorManager().fetchAllContributors(monitor);
+		Map<String, IContributor> contributorsByName = new HashMap<String, IContributor>();
+		for (Object item : allContributors) {
+			IContributor contributor = (IContributor) item;
+			if (!contributorsByName.containsKey(contributor.getName())) {
+				contributorsByName.put(contributor.getName(), contributor);
+			}
+		}
+		synchronized (this) {
+			if (fContributorsByName == null) {
+				for (Object item : allContributors) {
+					IContributor contributor = (IContributor) item;
+					if (!fContributorsByUserId.containsKey(contributor.getUserId())) {
+						fContributorsByUserId.put(contributor.getUserId(), contributor);
+					}
+				}
+				fContributorsByName = contributorsByName;
+			}
+			return fContributorsByName;
+		}
+	}
+}
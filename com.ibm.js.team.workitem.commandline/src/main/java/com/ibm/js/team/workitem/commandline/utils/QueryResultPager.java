@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation
+ *
+ * This software may be modified and distributed under the terms
+ * of the MIT license.  See the LICENSE file for details.
+ * 
+ *******************************************************************************/
+package com.ibm.js.team.workitem.commandline.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import com.ibm.team.repository.common.TeamRepositoryException;
+import com.ibm.team.workitem.common.model.IWorkItemHandle;
+import com.ibm.team.workitem.common.query.IQueryResult;
+import com.ibm.team.workitem.common.query.IResult;
+
+/**
+ * Reads the work item handles of a query result in pages. The pages are
+ * pulled from the query result on demand, so the handles are never all held
+ * in memory and the first page can be processed while the query result
+ * fetches the next ones from the server.
+ * 
+ * The pager must be used from one thread only.
+ * 
+ */
+public class QueryResultPager {
+
+	// The default number of work items in a page
+	public static final int DEFAULT_PAGE_SIZE = 100;
+
+	private IQueryResult<IResult> fResults;
+	private int fPageSize;
+	private IProgressMonitor fMonitor;
+	private int fCount = 0;
+	// The last work item skipped, null if none was skipped
+	private IWorkItemHandle fLastSkipped = null;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param results
+	 *            - the unresolved query result
+	 * @param pageSize
+	 *            - the maximal number of work items in a page
+	 * @param monitor
+	 */
+	public QueryResultPager(IQueryResult<IResult> results, int pageSize, IProgressMonitor monitor) {
+		super();
+		this.fResults = results;
+		this.fPageSize = pageSize;
+		this.fMonitor = monitor;
+	}
+
+	/**
+	 * @return true if there are more work items in the query result
+	 * @throws TeamRepositoryException
+	 */
+	public boolean hasNextPage() throws TeamRepositoryException {
+		return fResults.hasNext(fMonitor);
+	}
+
+	/**
+	 * Get the next page of work item handles
+	 * 
+	 * @return a list with at most page size handles, empty if there are no
+	 *         more work items
+	 * @throws TeamRepositoryException
+	 */
+	public List<IWorkItemHandle> nextPage() throws TeamRepositoryException {
+		List<IWorkItemHandle> page = new ArrayList<IWorkItemHandle>(fPageSize);
+		while (page.size() < fPageSize && fResults.hasNext(fMonitor)) {
+			IResult result = fResults.next(fMonitor);
+			page.add((IWorkItemHandle) result.getItem());
+		}
+		fCount += page.size();
+		return page;
+	}
+
+	/**
+	 * Skip work items of the query result without resolving them. Only the
+	 * handle of the last work item skipped is kept, see
+	 * {@link #getLastSkipped()}.
+	 *
+	 * @param count
+	 *            - the number of work items to skip
+	 * @return the number of work items skipped
+	 * @throws TeamRepositoryException
+	 */
+	public int skip(int count) throws TeamRepositoryException {
+		int skipped = 0;
+		while (skipped < count && fResults.hasNext(fMonitor)) {
+			fLastSkipped = (IWorkItemHandle) fResults.next(fMonitor).getItem();
+			skipped++;
+		}
+		fCount += skipped;
+		return skipped;
+	}
+
+	/**
+	 * @return the handle of the last work item skipped, null if none was
+	 *         skipped
+	 */
+	public IWorkItemHandle getLastSkipped() {
+		return fLastSkipped;
+	}
+
+	/**
+	 * @return the number of work item handles read or skipped so far
+	 */
+	public int getCount() {
+		return fCount;
+	}
+}
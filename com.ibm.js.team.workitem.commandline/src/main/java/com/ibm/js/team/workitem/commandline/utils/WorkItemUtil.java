@@ -7,10 +7,17 @@
  *******************************************************************************/
 package com.ibm.js.team.workitem.commandline.utils;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.eclipse.core.runtime.IProgressMonitor;
 
 import com.ibm.js.team.workitem.commandline.framework.WorkItemCommandLineException;
+import com.ibm.team.repository.client.IItemManager;
+import com.ibm.team.repository.client.ITeamRepository;
 import com.ibm.team.repository.common.IAuditableHandle;
+import com.ibm.team.repository.common.IFetchResult;
 import com.ibm.team.repository.common.TeamRepositoryException;
 import com.ibm.team.workitem.common.IWorkItemCommon;
 import com.ibm.team.workitem.common.model.IWorkItem;
@@ -64,4 +71,50 @@ public class WorkItemUtil {
 			IWorkItemCommon wiCommon, IProgressMonitor monitor) throws TeamRepositoryException {
 		return (IWorkItem) wiCommon.getAuditableCommon().resolveAuditable(handle, profile, monitor);
 	}
+
+	/**
+	 * Resolve a list of WorkItems from their handles in one server round trip.
+	 * The result has the same order as the handles. Work items that can not be
+	 * resolved are returned as null.
+	 * 
+	 * @param handles
+	 * @param profile
+	 * @param wiCommon
+	 * @param monitor
+	 * @return
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IWorkItem> resolveWorkItems(List<? extends IAuditableHandle> handles,
+			ItemProfile<IWorkItem> profile, IWorkItemCommon wiCommon, IProgressMonitor monitor)
+			throws TeamRepositoryException {
+		return wiCommon.getAuditableCommon().resolveAuditables(handles, profile, monitor);
+	}
+
+	/**
+	 * Resolve several WorkItems with some of their properties from their
+	 * handles in one server round trip. Work items that are not found or not
+	 * accessible are not returned, so one deleted or unreadable work item does
+	 * not fail the others.
+	 * 
+	 * @param handles
+	 * @param properties
+	 *            - the properties to fetch, e.g. IWorkItem.ID_PROPERTY
+	 * @param teamRepository
+	 * @param monitor
+	 * @return the work items that were found
+	 * @throws TeamRepositoryException
+	 */
+	public static List<IWorkItem> resolveWorkItemsPermissionAware(List<? extends IAuditableHandle> handles,
+			Collection<String> properties, ITeamRepository teamRepository, IProgressMonitor monitor)
+			throws TeamRepositoryException {
+		List<IWorkItem> resolved = new ArrayList<IWorkItem>(handles.size());
+		IFetchResult fetchResult = teamRepository.itemManager().fetchPartialItemsPermissionAware(handles,
+				IItemManager.DEFAULT, properties, monitor);
+		for (Object result : fetchResult.getRetrievedItems()) {
+			if (result instanceof IWorkItem) {
+				resolved.add((IWorkItem) result);
+			}
+		}
+		return resolved;
+	}
 }